@@ -1,25 +1,25 @@
 package org.sid.billingservice;
 
-import org.sid.billingservice.entities.Bill;
-import org.sid.billingservice.entities.ProductItem;
 import org.sid.billingservice.model.Customer;
 import org.sid.billingservice.model.Product;
-import org.sid.billingservice.repository.BillRepository;
-import org.sid.billingservice.repository.ProductItemRepository;
-
+import org.sid.billingservice.records.CreateBillRequest;
+import org.sid.billingservice.services.BillService;
 import org.sid.billingservice.services.CustomerRestClient;
 import org.sid.billingservice.services.ProductRestClient;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.util.Collection;
-import java.util.Date;
+import java.util.List;
 import java.util.Random;
 @EnableFeignClients(basePackages = "org.sid.billingservice.services")
 @SpringBootApplication
+@EnableScheduling
 public class BillingServiceApplication {
 
     public static void main(String[] args) {
@@ -27,29 +27,22 @@ public class BillingServiceApplication {
     }
 
     @Bean
-    CommandLineRunner start(BillRepository billRepository,
-                            ProductItemRepository productItemRepository,
-                            CustomerRestClient customerRestClient,
-                            ProductRestClient productRestClient) {
+    @ConditionalOnProperty(name = "billing.seed.enabled", havingValue = "true", matchIfMissing = true)
+    CommandLineRunner start(CustomerRestClient customerRestClient,
+                            ProductRestClient productRestClient,
+                            BillService billService) {
         return args -> {
             Collection<Product> products = productRestClient.AllProducts().getContent();
-            long customerId = 1L;
-            Customer customer = customerRestClient.FindCustomerById(customerId);
-            if (customer == null) throw new RuntimeException("Customer not found");
-            Bill bill = new Bill();
-            bill.setBillDate(new Date());
-            bill.setCustomerId(customerId);
-            Bill savedBill = billRepository.save(bill);
+            // Les ids clients sont des UUID : on prend le premier client disponible
+            Customer customer = customerRestClient.AllCustomers().getContent().stream()
+                    .findFirst()
+                    .orElseThrow(() -> new RuntimeException("Customer not found"));
 
-            products.forEach(product -> {
-                ProductItem productItem = new ProductItem();
-                productItem.setBill(savedBill);
-                productItem.setProductId(product.getId());
-                productItem.setQuantity(1 + new Random().nextInt(10));
-                productItem.setPrice(product.getPrice());
-                productItem.setDiscount(Math.random());
-                productItemRepository.save(productItem);
-            });
+            Random random = new Random();
+            List<CreateBillRequest.Line> lines = products.stream()
+                    .map(product -> new CreateBillRequest.Line(product.getId(), 1 + random.nextInt(10), Math.random()))
+                    .toList();
+            billService.createBill(new CreateBillRequest(customer.getId(), lines));
         };
     }
 }
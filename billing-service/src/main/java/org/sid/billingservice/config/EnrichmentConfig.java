@@ -0,0 +1,36 @@
+package org.sid.billingservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class EnrichmentConfig {
+
+    @Bean(name = "enrichmentExecutor")
+    public AsyncTaskExecutor enrichmentExecutor(
+            Environment environment,
+            @Value("${billing.enrichment.pool.core-size:16}") int coreSize,
+            @Value("${billing.enrichment.pool.max-size:64}") int maxSize,
+            @Value("${billing.enrichment.pool.queue-capacity:500}") int queueCapacity) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            // Un thread virtuel par tâche, au plus max-size à la fois (l'appelant attend au-delà)
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("bill-enrichment-");
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(maxSize);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(coreSize);
+        executor.setMaxPoolSize(maxSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("bill-enrichment-");
+        executor.initialize();
+        return executor;
+    }
+}
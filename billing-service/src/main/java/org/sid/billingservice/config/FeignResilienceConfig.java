@@ -0,0 +1,107 @@
+package org.sid.billingservice.config;
+
+import feign.Capability;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Disjoncteurs, cloisons et hedging des clients Feign, appliqués via une {@link Capability}
+ * (Spring Cloud OpenFeign l'ajoute à tous les clients). Les timeouts de connexion et de
+ * lecture sont ceux de {@code spring.cloud.openfeign.client.config}.
+ */
+@Configuration
+public class FeignResilienceConfig {
+
+    @Bean
+    public CircuitBreakerRegistry feignCircuitBreakers(
+            MeterRegistry meterRegistry,
+            @Value("${billing.remote.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${billing.remote.circuit-breaker.slow-call-ms:1000}") long slowCallMs,
+            @Value("${billing.remote.circuit-breaker.window-size:20}") int windowSize,
+            @Value("${billing.remote.circuit-breaker.open-ms:5000}") long openMs) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallMs))
+                .slidingWindowSize(windowSize)
+                .minimumNumberOfCalls(Math.max(1, windowSize / 2))
+                .waitDurationInOpenState(Duration.ofMillis(openMs))
+                // Une réponse 5xx compte comme un échec du service
+                .recordResult(result -> result instanceof feign.Response response && response.status() >= 500)
+                .build();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    /**
+     * Une cloison par service : {@code billing.remote.<service>.max-concurrent} surcharge la valeur commune.
+     */
+    @Bean
+    public BulkheadRegistry feignBulkheads(
+            MeterRegistry meterRegistry,
+            Environment environment,
+            @Value("${billing.remote.max-concurrent:20}") int maxConcurrent,
+            @Value("${billing.remote.max-wait-ms:50}") long maxWaitMs) {
+        BulkheadRegistry registry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrent)
+                .maxWaitDuration(Duration.ofMillis(maxWaitMs))
+                .build());
+        for (String service : new String[]{"customer-service", "inventory-service"}) {
+            Integer limit = environment.getProperty("billing.remote." + service + ".max-concurrent", Integer.class);
+            if (limit != null) {
+                registry.addConfiguration(service, BulkheadConfig.custom()
+                        .maxConcurrentCalls(limit)
+                        .maxWaitDuration(Duration.ofMillis(maxWaitMs))
+                        .build());
+            }
+        }
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    @Bean(name = "feignHedgeExecutor")
+    public AsyncTaskExecutor feignHedgeExecutor(Environment environment) {
+        // Pas de file : le nombre de threads est déjà borné par les cloisons
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("feign-hedge-");
+            executor.setVirtualThreads(true);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(0);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("feign-hedge-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    public Capability resilienceCapability(
+            CircuitBreakerRegistry feignCircuitBreakers,
+            BulkheadRegistry feignBulkheads,
+            AsyncTaskExecutor feignHedgeExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${billing.remote.hedging.enabled:false}") boolean hedgingEnabled,
+            @Value("${billing.remote.hedging.min-delay-ms:50}") long minHedgeDelayMs,
+            @Value("${billing.remote.hedging.post-paths:/api/products/bulk}") Set<String> hedgeablePosts) {
+        return new ResilienceCapability(feignCircuitBreakers, feignBulkheads, feignHedgeExecutor, meterRegistry,
+                hedgingEnabled, minHedgeDelayMs, hedgeablePosts);
+    }
+}
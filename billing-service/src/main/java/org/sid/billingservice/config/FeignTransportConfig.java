@@ -0,0 +1,46 @@
+package org.sid.billingservice.config;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.HttpClientConnectionManager;
+import org.apache.hc.core5.util.TimeValue;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.openfeign.clientconfig.HttpClient5FeignConfiguration.HttpClientBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Transport HTTP des clients Feign. Par défaut Apache HttpClient 5 : pool de connexions
+ * persistantes ({@code spring.cloud.openfeign.httpclient.*}) et réponses gzip décompressées.
+ * Le client JDK en HTTP/2 le remplace avec {@code spring.cloud.openfeign.http2client.enabled=true}
+ * et {@code spring.cloud.openfeign.httpclient.hc5.enabled=false}.
+ */
+@Configuration
+public class FeignTransportConfig {
+
+    /**
+     * Ferme les connexions inactives avant que le serveur ne le fasse (keep-alive Tomcat : 20 s),
+     * pour ne pas réutiliser une connexion déjà fermée de l'autre côté.
+     */
+    @Bean
+    public HttpClientBuilderCustomizer feignIdleConnectionEviction(
+            @Value("${billing.remote.pool.max-idle:15s}") Duration maxIdle) {
+        return builder -> builder.evictIdleConnections(TimeValue.ofMilliseconds(maxIdle.toMillis()));
+    }
+
+    /**
+     * Métriques du pool sur actuator : {@code httpcomponents.httpclient.pool.*} avec le tag {@code httpclient=feign}.
+     */
+    @Bean
+    public MeterBinder feignConnectionPoolMetrics(ObjectProvider<HttpClientConnectionManager> connectionManager) {
+        return registry -> connectionManager.ifAvailable(manager -> {
+            if (manager instanceof PoolingHttpClientConnectionManager pool) {
+                new PoolingHttpClientConnectionManagerMetricsBinder(pool, "feign").bindTo(registry);
+            }
+        });
+    }
+}
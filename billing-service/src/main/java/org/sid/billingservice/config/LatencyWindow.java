@@ -0,0 +1,36 @@
+package org.sid.billingservice.config;
+
+import java.util.Arrays;
+
+/**
+ * Fenêtre glissante des dernières latences d'un service distant, pour estimer leur p95.
+ */
+class LatencyWindow {
+
+    private static final int SIZE = 256;
+    private static final int MIN_SAMPLES = 20;
+    private static final int RECOMPUTE_EVERY = 16;
+
+    private final long[] samples = new long[SIZE];
+    private int count;
+    private int next;
+    private volatile long p95Nanos = -1;
+
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % SIZE;
+        count = Math.min(count + 1, SIZE);
+        if (count >= MIN_SAMPLES && next % RECOMPUTE_EVERY == 0) {
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            p95Nanos = sorted[(int) Math.ceil(count * 0.95) - 1];
+        }
+    }
+
+    /**
+     * p95 en nanosecondes, ou -1 tant que la fenêtre n'a pas assez d'échantillons.
+     */
+    long p95Nanos() {
+        return p95Nanos;
+    }
+}
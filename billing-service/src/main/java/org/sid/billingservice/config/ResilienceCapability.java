@@ -0,0 +1,33 @@
+package org.sid.billingservice.config;
+
+import feign.Capability;
+import feign.Client;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+/**
+ * Remplace le client HTTP de chaque client Feign par un {@link ResilientFeignClient}.
+ * Feign appelle {@code enrich} par réflexion : la classe doit rester publique.
+ */
+@RequiredArgsConstructor
+public class ResilienceCapability implements Capability {
+
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final Executor hedgeExecutor;
+    private final MeterRegistry meterRegistry;
+    private final boolean hedgingEnabled;
+    private final long minHedgeDelayMs;
+    private final Set<String> hedgeablePosts;
+
+    @Override
+    public Client enrich(Client client) {
+        return new ResilientFeignClient(client, circuitBreakers, bulkheads, hedgeExecutor, meterRegistry,
+                hedgingEnabled, minHedgeDelayMs, hedgeablePosts);
+    }
+}
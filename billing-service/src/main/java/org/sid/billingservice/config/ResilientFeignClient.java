@@ -0,0 +1,163 @@
+package org.sid.billingservice.config;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Client HTTP des clients Feign, placé autour du client load-balancé : chaque service distant a
+ * sa cloison (appels simultanés bornés) et son disjoncteur. Une lecture qui dépasse le p95 du
+ * service peut être doublée (hedging) ; le load balancer round-robin envoie la seconde requête
+ * à une autre instance et la première réponse arrivée est retenue.
+ */
+@Slf4j
+public class ResilientFeignClient implements Client {
+
+    private final Client delegate;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final BulkheadRegistry bulkheads;
+    private final Executor hedgeExecutor;
+    private final MeterRegistry meterRegistry;
+    private final boolean hedgingEnabled;
+    private final long minHedgeDelayNanos;
+    private final Set<String> hedgeablePosts;
+    private final Map<String, LatencyWindow> latencies = new ConcurrentHashMap<>();
+
+    public ResilientFeignClient(Client delegate, CircuitBreakerRegistry circuitBreakers, BulkheadRegistry bulkheads,
+                                Executor hedgeExecutor, MeterRegistry meterRegistry,
+                                boolean hedgingEnabled, long minHedgeDelayMs, Set<String> hedgeablePosts) {
+        this.delegate = delegate;
+        this.circuitBreakers = circuitBreakers;
+        this.bulkheads = bulkheads;
+        this.hedgeExecutor = hedgeExecutor;
+        this.meterRegistry = meterRegistry;
+        this.hedgingEnabled = hedgingEnabled;
+        this.minHedgeDelayNanos = TimeUnit.MILLISECONDS.toNanos(minHedgeDelayMs);
+        this.hedgeablePosts = hedgeablePosts;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        String service = request.requestTemplate().feignTarget().name().toLowerCase(Locale.ROOT);
+        CircuitBreaker circuitBreaker = circuitBreakers.circuitBreaker(service);
+        Bulkhead bulkhead = bulkheads.getConfiguration(service)
+                .map(config -> bulkheads.bulkhead(service, config))
+                .orElseGet(() -> bulkheads.bulkhead(service));
+        LatencyWindow latency = latencies.computeIfAbsent(service, this::newWindow);
+        try {
+            return circuitBreaker.executeCallable(() -> hedgeable(request)
+                    ? hedged(service, bulkhead, latency, request, options)
+                    : attempt(bulkhead, latency, request, options));
+        } catch (IOException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    private Response attempt(Bulkhead bulkhead, LatencyWindow latency, Request request, Request.Options options)
+            throws IOException {
+        bulkhead.acquirePermission();
+        try {
+            long start = System.nanoTime();
+            Response response = delegate.execute(request, options);
+            latency.record(System.nanoTime() - start);
+            return response;
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    private Response hedged(String service, Bulkhead bulkhead, LatencyWindow latency,
+                            Request request, Request.Options options) throws IOException {
+        bulkhead.acquirePermission();
+        CompletableFuture<Response> result = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        submit(bulkhead, latency, request, options, result, pending);
+
+        long p95 = latency.p95Nanos();
+        try {
+            if (p95 < 0) {
+                return result.get();
+            }
+            try {
+                return result.get(Math.max(minHedgeDelayNanos, p95), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // La seconde requête n'est lancée que si la cloison a encore de la place
+                if (bulkhead.tryAcquirePermission()) {
+                    pending.incrementAndGet();
+                    meterRegistry.counter("billing.remote.hedges", "service", service).increment();
+                    submit(bulkhead, latency, request, options, result, pending);
+                }
+                return result.get();
+            }
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) {
+                throw io;
+            }
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IOException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + service);
+        }
+    }
+
+    private void submit(Bulkhead bulkhead, LatencyWindow latency, Request request, Request.Options options,
+                        CompletableFuture<Response> result, AtomicInteger pending) {
+        hedgeExecutor.execute(() -> {
+            try {
+                long start = System.nanoTime();
+                Response response = delegate.execute(request, options);
+                latency.record(System.nanoTime() - start);
+                if (!result.complete(response)) {
+                    // Réponse perdante : on libère la connexion
+                    response.close();
+                }
+            } catch (Exception e) {
+                if (pending.decrementAndGet() == 0) {
+                    result.completeExceptionally(e);
+                }
+            } finally {
+                bulkhead.onComplete();
+            }
+        });
+    }
+
+    private boolean hedgeable(Request request) {
+        return hedgingEnabled && (request.httpMethod() == Request.HttpMethod.GET
+                || hedgeablePosts.contains(request.requestTemplate().path()));
+    }
+
+    private LatencyWindow newWindow(String service) {
+        LatencyWindow window = new LatencyWindow();
+        Gauge.builder("billing.remote.latency.p95", window, w -> w.p95Nanos() / 1_000_000.0)
+                .tag("service", service)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        return window;
+    }
+}
@@ -0,0 +1,40 @@
+package org.sid.billingservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import feign.RequestInterceptor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Les clients Feign demandent la représentation binaire Smile et acceptent HAL/JSON en repli :
+ * un service (ou une ressource Spring Data REST) qui ne produit pas de Smile répond en JSON.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    static final String ACCEPT = "application/x-jackson-smile, application/hal+json;q=0.9, application/json;q=0.8";
+
+    @Bean
+    @ConditionalOnProperty(name = "billing.remote.smile.enabled", havingValue = "true", matchIfMissing = true)
+    public RequestInterceptor smileAcceptInterceptor() {
+        return template -> {
+            // Un Accept explicite (produces du mapping) est conservé
+            if (!template.headers().containsKey(HttpHeaders.ACCEPT)) {
+                template.header(HttpHeaders.ACCEPT, ACCEPT);
+            }
+        };
+    }
+
+    /**
+     * Décodage des réponses Smile (les décodeurs Feign utilisent les convertisseurs de Spring Boot) :
+     * remplace le convertisseur Smile par défaut, construit sans la configuration Jackson de Spring Boot.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory()));
+    }
+}
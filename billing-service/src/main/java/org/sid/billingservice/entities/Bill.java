@@ -1,5 +1,6 @@
 package org.sid.billingservice.entities;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
@@ -10,6 +11,7 @@ import org.sid.billingservice.model.Customer;
 
 import java.util.Date;
 import java.util.List;
+import java.util.Set;
 @Entity
 @Data
 @NoArgsConstructor
@@ -18,12 +20,16 @@ import java.util.List;
 public class Bill {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // UUID généré côté application : pas d'aller-retour vers la base avant les INSERT des lignes
+    @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
     private Date billDate;
-    private Long customerId;
-    @OneToMany(mappedBy = "bill")
+    private String customerId;
+    @OneToMany(mappedBy = "bill", cascade = CascadeType.PERSIST)
     private List<ProductItem> productItems;
     @Transient
     private Customer customer;
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private Set<String> missingEnrichments;
 }
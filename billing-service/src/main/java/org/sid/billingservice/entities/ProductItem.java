@@ -17,8 +17,10 @@ import org.sid.billingservice.model.Product;
 @Builder
 public class ProductItem {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private long id;
+    // Séquence avec optimiseur pooled : un appel à la séquence pour 50 lignes, INSERT batchables
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_item_seq")
+    @SequenceGenerator(name = "product_item_seq", sequenceName = "product_item_seq", allocationSize = 50)
+    private Long id;
     private Long productId;
 
     @ManyToOne
@@ -26,6 +28,7 @@ public class ProductItem {
     private Bill bill;
     private int quantity;
     private double price;
+    private double discount;
     @Transient
 
     private Product product;
@@ -9,4 +9,5 @@ public class Product {
     private String name;
     private double price;
     private int quantity;
+    private Long version;
 }
@@ -0,0 +1,11 @@
+package org.sid.billingservice.model;
+
+import lombok.Data;
+
+@Data
+public class ProductChange {
+    private long sequence;
+    private Long productId;
+    private Long version;
+    private String type;
+}
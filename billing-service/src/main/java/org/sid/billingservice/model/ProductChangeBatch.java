@@ -0,0 +1,14 @@
+package org.sid.billingservice.model;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ProductChangeBatch {
+    // Instance d'inventory-service qui a répondu : la séquence n'est valable que pour elle
+    private String instanceId;
+    private long latestSequence;
+    private boolean truncated;
+    private List<ProductChange> changes;
+}
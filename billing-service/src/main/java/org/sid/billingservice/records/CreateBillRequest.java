@@ -0,0 +1,11 @@
+package org.sid.billingservice.records;
+
+import java.util.List;
+
+public record CreateBillRequest(
+        String customerId,
+        List<Line> lines
+) {
+    public record Line(Long productId, int quantity, double discount) {
+    }
+}
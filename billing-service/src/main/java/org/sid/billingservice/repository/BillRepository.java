@@ -3,5 +3,5 @@ package org.sid.billingservice.repository;
 import org.sid.billingservice.entities.Bill;
 import org.springframework.data.jpa.repository.JpaRepository;
 
-public interface BillRepository extends JpaRepository<Bill, Long> {
+public interface BillRepository extends JpaRepository<Bill, String> {
 }
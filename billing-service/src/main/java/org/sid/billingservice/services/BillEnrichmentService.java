@@ -0,0 +1,104 @@
+package org.sid.billingservice.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.sid.billingservice.entities.Bill;
+import org.sid.billingservice.entities.ProductItem;
+import org.sid.billingservice.model.Customer;
+import org.sid.billingservice.model.Product;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Service
+@Slf4j
+public class BillEnrichmentService {
+
+    public static final String CUSTOMER = "customer";
+    public static final String PRODUCTS = "products";
+
+    private final RemoteModelCache remoteModelCache;
+    private final Executor executor;
+    private final long timeoutMs;
+    private final int productBatchSize;
+
+    public BillEnrichmentService(RemoteModelCache remoteModelCache,
+                                 @Qualifier("enrichmentExecutor") Executor executor,
+                                 @Value("${billing.enrichment.timeout-ms:2000}") long timeoutMs,
+                                 @Value("${billing.enrichment.product-batch-size:200}") int productBatchSize) {
+        this.remoteModelCache = remoteModelCache;
+        this.executor = executor;
+        this.timeoutMs = timeoutMs;
+        this.productBatchSize = productBatchSize;
+    }
+
+    /**
+     * Lance l'appel client et les appels produits en parallèle, chacun borné par le timeout.
+     * En mode partiel, un enrichissement en échec est signalé dans {@code missingEnrichments}
+     * au lieu de faire échouer toute la facture.
+     */
+    public Bill enrich(Bill bill, boolean allowPartial) {
+        CompletableFuture<Customer> customerFuture = bill.getCustomerId() == null
+                ? CompletableFuture.completedFuture(null)
+                : call(() -> remoteModelCache.getCustomer(bill.getCustomerId()));
+
+        List<ProductItem> items = bill.getProductItems() == null ? List.of() : bill.getProductItems();
+        List<Long> productIds = items.stream()
+                .map(ProductItem::getProductId)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+        List<CompletableFuture<Map<Long, Product>>> productFutures = new ArrayList<>();
+        for (int i = 0; i < productIds.size(); i += productBatchSize) {
+            List<Long> chunk = productIds.subList(i, Math.min(i + productBatchSize, productIds.size()));
+            productFutures.add(call(() -> remoteModelCache.getProducts(chunk)));
+        }
+
+        Set<String> missing = new LinkedHashSet<>();
+        bill.setCustomer(await(customerFuture, CUSTOMER, missing, allowPartial));
+
+        Map<Long, Product> products = new HashMap<>();
+        for (CompletableFuture<Map<Long, Product>> future : productFutures) {
+            Map<Long, Product> chunk = await(future, PRODUCTS, missing, allowPartial);
+            if (chunk != null) {
+                products.putAll(chunk);
+            }
+        }
+        items.forEach(pi -> pi.setProduct(products.get(pi.getProductId())));
+
+        if (!missing.isEmpty()) {
+            bill.setMissingEnrichments(missing);
+        }
+        return bill;
+    }
+
+    private <T> CompletableFuture<T> call(Supplier<T> supplier) {
+        try {
+            return CompletableFuture.supplyAsync(supplier, executor)
+                    .orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (RuntimeException e) {
+            // Pool saturé : on traite le rejet comme un échec d'appel
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> future, String part, Set<String> missing, boolean allowPartial) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            if (!allowPartial) {
+                throw new RuntimeException("Bill enrichment failed for " + part, cause);
+            }
+            log.warn("Bill enrichment failed for {}: {}", part, cause.toString());
+            missing.add(part);
+            return null;
+        }
+    }
+}
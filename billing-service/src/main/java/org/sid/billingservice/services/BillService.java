@@ -0,0 +1,9 @@
+package org.sid.billingservice.services;
+
+import org.sid.billingservice.entities.Bill;
+import org.sid.billingservice.records.CreateBillRequest;
+
+public interface BillService {
+
+    Bill createBill(CreateBillRequest request);
+}
@@ -0,0 +1,80 @@
+package org.sid.billingservice.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sid.billingservice.entities.Bill;
+import org.sid.billingservice.entities.ProductItem;
+import org.sid.billingservice.model.Product;
+import org.sid.billingservice.records.CreateBillRequest;
+import org.sid.billingservice.repository.BillRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BillServiceImpl implements BillService {
+
+    private final BillRepository billRepository;
+    private final ProductRestClient productRestClient;
+    private final RemoteModelCache remoteModelCache;
+
+    /**
+     * Les appels distants (client, prix) sont faits hors transaction ; la facture et ses
+     * lignes sont ensuite persistées par cascade dans un seul {@code save}, en INSERT batchés.
+     * Requête invalide : IllegalArgumentException ; client ou produit inconnu : NoSuchElementException.
+     */
+    @Override
+    public Bill createBill(CreateBillRequest request) {
+        // Validation de la requête
+        if (request.customerId() == null || request.lines() == null || request.lines().isEmpty()) {
+            throw new IllegalArgumentException("A bill needs a customer and at least one line");
+        }
+        for (CreateBillRequest.Line line : request.lines()) {
+            if (line.productId() == null || line.quantity() <= 0) {
+                throw new IllegalArgumentException("Invalid bill line for product: " + line.productId());
+            }
+        }
+        if (remoteModelCache.getCustomer(request.customerId()) == null) {
+            throw new NoSuchElementException("Customer not found with id: " + request.customerId());
+        }
+
+        // Un seul appel groupé pour les prix, lus à la source plutôt que dans le near-cache
+        List<Long> productIds = request.lines().stream()
+                .map(CreateBillRequest.Line::productId)
+                .distinct()
+                .toList();
+        Map<Long, Product> products = new HashMap<>();
+        Objects.requireNonNullElse(productRestClient.FindProductsByIds(productIds), List.<Product>of())
+                .forEach(p -> products.put(p.getId(), p));
+
+        Bill bill = new Bill();
+        bill.setBillDate(new Date());
+        bill.setCustomerId(request.customerId());
+        List<ProductItem> items = new ArrayList<>(request.lines().size());
+        for (CreateBillRequest.Line line : request.lines()) {
+            Product product = products.get(line.productId());
+            if (product == null) {
+                throw new NoSuchElementException("Product not found with id: " + line.productId());
+            }
+            ProductItem item = new ProductItem();
+            item.setBill(bill);
+            item.setProductId(line.productId());
+            item.setQuantity(line.quantity());
+            item.setPrice(product.getPrice());
+            item.setDiscount(line.discount());
+            items.add(item);
+        }
+        bill.setProductItems(items);
+
+        log.info("Saving bill for customer {} with {} lines", request.customerId(), items.size());
+        return billRepository.save(bill);
+    }
+}
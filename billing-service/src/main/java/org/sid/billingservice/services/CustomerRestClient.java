@@ -10,8 +10,8 @@ import org.springframework.web.bind.annotation.PathVariable;
 @FeignClient(name = "CUSTOMER-SERVICE")
 public interface CustomerRestClient {
     @GetMapping(path="/api/customers/{id}")
-    Customer FindCustomerById(@PathVariable long id);
+    Customer FindCustomerById(@PathVariable String id);
 
-    @GetMapping(path="/api/customers")
+    @GetMapping(path="/customers")
     PagedModel<Customer> AllCustomers();
 }
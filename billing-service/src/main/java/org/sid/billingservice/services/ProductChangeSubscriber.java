@@ -0,0 +1,78 @@
+package org.sid.billingservice.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.sid.billingservice.model.ProductChange;
+import org.sid.billingservice.model.ProductChangeBatch;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Suit le journal de changements d'inventory-service et invalide précisément les produits
+ * modifiés dans le near-cache. Chaque instance numérote son propre journal : un curseur est
+ * gardé par instance et tous sont envoyés, l'instance choisie par le load balancer lit le sien.
+ * En cas de trou dans le journal, ou d'instance inconnue (nouvelle ou redémarrée) alors que
+ * d'autres sont déjà suivies, tout le cache produits est vidé.
+ */
+@Service
+@Slf4j
+@ConditionalOnProperty(name = "billing.cache.products.invalidation.enabled", havingValue = "true", matchIfMissing = true)
+public class ProductChangeSubscriber {
+
+    private record Cursor(long sequence, long seenAt) {
+    }
+
+    private final ProductRestClient productRestClient;
+    private final RemoteModelCache remoteModelCache;
+    private final long instanceExpiryNanos;
+    private final Map<String, Cursor> cursors = new ConcurrentHashMap<>();
+
+    public ProductChangeSubscriber(ProductRestClient productRestClient, RemoteModelCache remoteModelCache,
+                                   @Value("${billing.cache.products.invalidation.instance-expiry:10m}") Duration instanceExpiry) {
+        this.productRestClient = productRestClient;
+        this.remoteModelCache = remoteModelCache;
+        this.instanceExpiryNanos = instanceExpiry.toNanos();
+    }
+
+    @Scheduled(fixedDelayString = "${billing.cache.products.invalidation.interval-ms:1000}")
+    public void poll() {
+        try {
+            apply(productRestClient.ProductChanges(cursorParameters()));
+        } catch (Exception e) {
+            log.debug("Product change feed unavailable: {}", e.getMessage());
+        }
+    }
+
+    List<String> cursorParameters() {
+        return cursors.entrySet().stream()
+                .map(entry -> entry.getKey() + ":" + entry.getValue().sequence())
+                .toList();
+    }
+
+    // poll() est planifié à délai fixe : jamais deux appels simultanés
+    void apply(ProductChangeBatch batch) {
+        String instanceId = batch.getInstanceId() != null ? batch.getInstanceId() : "";
+        long now = System.nanoTime();
+        if (batch.isTruncated()) {
+            log.info("Product change feed of instance {} truncated, evicting all cached products", instanceId);
+            remoteModelCache.evictAllProducts();
+        } else if (!cursors.containsKey(instanceId) && !cursors.isEmpty()) {
+            // Les changements de cette instance avant ce premier contact sont inconnus
+            log.info("New product change feed instance {}, evicting all cached products", instanceId);
+            remoteModelCache.evictAllProducts();
+        } else if (batch.getChanges() != null) {
+            for (ProductChange change : batch.getChanges()) {
+                remoteModelCache.evictProduct(change.getProductId());
+            }
+        }
+        cursors.put(instanceId, new Cursor(batch.getLatestSequence(), now));
+        // Instances arrêtées ou redémarrées (nouvel id) : leur curseur ne resservira pas
+        cursors.values().removeIf(cursor -> now - cursor.seenAt() > instanceExpiryNanos);
+    }
+}
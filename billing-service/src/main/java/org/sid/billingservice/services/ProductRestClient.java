@@ -1,11 +1,18 @@
 package org.sid.billingservice.services;
 
 import org.sid.billingservice.model.Product;
+import org.sid.billingservice.model.ProductChangeBatch;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.data.web.config.SpringDataJacksonConfiguration;
 import org.springframework.hateoas.PagedModel;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.Collection;
+import java.util.List;
 
 @FeignClient(name="INVENTORY-SERVICE")
 public interface ProductRestClient {
@@ -13,4 +20,8 @@ public interface ProductRestClient {
     Product FindProductById(@PathVariable long id);
     @GetMapping(path="/products")
     PagedModel<Product> AllProducts();
+    @PostMapping(path="/api/products/bulk")
+    List<Product> FindProductsByIds(@RequestBody Collection<Long> ids);
+    @GetMapping(path="/api/products/changes")
+    ProductChangeBatch ProductChanges(@RequestParam("cursor") List<String> cursors);
 }
@@ -0,0 +1,112 @@
+package org.sid.billingservice.services;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import feign.FeignException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.sid.billingservice.model.Customer;
+import org.sid.billingservice.model.Product;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * Near-cache local des modèles distants (Customer, Product) placé devant les clients Feign.
+ * Les entrées expirent après un TTL et sont évincées au-delà d'une taille maximale ; des
+ * miss concurrents sur un même id partagent un seul appel distant.
+ */
+@Service
+@Slf4j
+public class RemoteModelCache {
+
+    private final CustomerRestClient customerRestClient;
+    private final ProductRestClient productRestClient;
+    private final AsyncCache<String, Customer> customers;
+    private final AsyncCache<Long, Product> products;
+
+    public RemoteModelCache(CustomerRestClient customerRestClient,
+                            ProductRestClient productRestClient,
+                            MeterRegistry meterRegistry,
+                            @Value("${billing.cache.customers.max-size:10000}") long customersMaxSize,
+                            @Value("${billing.cache.customers.ttl:10m}") Duration customersTtl,
+                            @Value("${billing.cache.products.max-size:50000}") long productsMaxSize,
+                            @Value("${billing.cache.products.ttl:5m}") Duration productsTtl) {
+        this.customerRestClient = customerRestClient;
+        this.productRestClient = productRestClient;
+        this.customers = CaffeineCacheMetrics.monitor(meterRegistry,
+                Caffeine.newBuilder()
+                        .maximumSize(customersMaxSize)
+                        .expireAfterWrite(customersTtl)
+                        .recordStats()
+                        .<String, Customer>buildAsync(),
+                "billing.customers");
+        this.products = CaffeineCacheMetrics.monitor(meterRegistry,
+                Caffeine.newBuilder()
+                        .maximumSize(productsMaxSize)
+                        .expireAfterWrite(productsTtl)
+                        .recordStats()
+                        .<Long, Product>buildAsync(),
+                "billing.products");
+    }
+
+    public Customer getCustomer(String id) {
+        return customers.getAll(List.of(id), (ids, executor) -> load(ids, this::loadCustomers))
+                .join()
+                .get(id);
+    }
+
+    public Map<Long, Product> getProducts(Collection<Long> ids) {
+        return products.getAll(ids, (missing, executor) -> load(missing, this::loadProducts)).join();
+    }
+
+    public void evictProduct(Long id) {
+        products.synchronous().invalidate(id);
+    }
+
+    public void evictAllProducts() {
+        products.synchronous().invalidateAll();
+    }
+
+    public void evictCustomer(String id) {
+        customers.synchronous().invalidate(id);
+    }
+
+    private Map<String, Customer> loadCustomers(Set<? extends String> ids) {
+        Map<String, Customer> loaded = new HashMap<>();
+        ids.forEach(id -> {
+            try {
+                Customer customer = customerRestClient.FindCustomerById(id);
+                if (customer != null) {
+                    loaded.put(id, customer);
+                }
+            } catch (FeignException.NotFound e) {
+                // Client inconnu : absent du résultat, comme une réponse vide
+            }
+        });
+        return loaded;
+    }
+
+    private Map<Long, Product> loadProducts(Set<? extends Long> ids) {
+        log.debug("Near-cache miss for {} products", ids.size());
+        Map<Long, Product> loaded = new HashMap<>();
+        productRestClient.FindProductsByIds(new ArrayList<>(ids))
+                .forEach(p -> loaded.putIfAbsent(p.getId(), p));
+        return loaded;
+    }
+
+    // Le chargement se fait dans le thread appelant : Caffeine a déjà réservé les entrées
+    // manquantes, les appelants concurrents attendent donc ce même chargement.
+    private static <S, K, V> CompletableFuture<Map<K, V>> load(S ids, Function<S, Map<K, V>> loader) {
+        try {
+            return CompletableFuture.completedFuture(loader.apply(ids));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -1,34 +1,89 @@
 package org.sid.billingservice.web;
 
+import feign.FeignException;
+import feign.RetryableException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import lombok.extern.slf4j.Slf4j;
 import org.sid.billingservice.entities.Bill;
+import org.sid.billingservice.records.CreateBillRequest;
 import org.sid.billingservice.repository.BillRepository;
 import org.sid.billingservice.repository.ProductItemRepository;
-import org.sid.billingservice.services.CustomerRestClient;
-import org.sid.billingservice.services.ProductRestClient;
+import org.sid.billingservice.services.BillEnrichmentService;
+import org.sid.billingservice.services.BillService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletionException;
 
 @RestController
+@Slf4j
 public class BillRestController {
     @Autowired
     private BillRepository billRepository;
     @Autowired
     private ProductItemRepository productItemRepository;
     @Autowired
-    private CustomerRestClient customerRestClient;
+    private BillEnrichmentService billEnrichmentService;
     @Autowired
-    private ProductRestClient productRestClient;
+    private BillService billService;
 
     @GetMapping("/fullBill/{id}")
-    public Bill bill(@PathVariable Long id) {
+    public Bill bill(@PathVariable String id,
+                     @RequestParam(defaultValue = "true") boolean partial) {
         Bill bill = billRepository.findById(id).get();
-        bill.setCustomer(customerRestClient.FindCustomerById(bill.getCustomerId()));
-        bill.getProductItems().forEach(pi -> {
-            pi.setProduct(productRestClient.FindProductById(pi.getProductId()));
-        });
-        return bill;
+        return billEnrichmentService.enrich(bill, partial);
+    }
+
+    @PostMapping("/bills")
+    public ResponseEntity<Bill> createBill(@RequestBody CreateBillRequest request) {
+        log.info("POST /bills - Creating bill for customer {}", request.customerId());
+
+        try {
+            Bill bill = billService.createBill(request);
+            return ResponseEntity.status(HttpStatus.CREATED).body(bill);
+        } catch (RuntimeException e) {
+            return failure(e);
+        }
+    }
+
+    /**
+     * Requête invalide : 400 ; client ou produit inconnu : 404 (avec le message).
+     * Service distant indisponible (circuit ouvert, bulkhead plein, connexion ou délai) : 503 ;
+     * autre réponse en erreur d'un service distant : 502.
+     */
+    private static ResponseEntity<Bill> failure(RuntimeException e) {
+        Throwable cause = e;
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof IllegalArgumentException) {
+            log.warn("Invalid bill request: {}", cause.getMessage());
+            return problem(HttpStatus.BAD_REQUEST, cause.getMessage());
+        }
+        if (cause instanceof NoSuchElementException) {
+            log.warn("Error creating bill: {}", cause.getMessage());
+            return problem(HttpStatus.NOT_FOUND, cause.getMessage());
+        }
+        if (cause instanceof CallNotPermittedException || cause instanceof BulkheadFullException
+                || cause instanceof RetryableException) {
+            log.warn("Remote service unavailable while creating bill: {}", cause.getMessage());
+            return problem(HttpStatus.SERVICE_UNAVAILABLE, "Remote service unavailable");
+        }
+        if (cause instanceof FeignException) {
+            log.warn("Remote service error while creating bill: {}", cause.getMessage());
+            return problem(HttpStatus.BAD_GATEWAY, "Remote service error");
+        }
+        log.error("Error creating bill", e);
+        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+    }
+
+    private static ResponseEntity<Bill> problem(HttpStatus status, String detail) {
+        return ResponseEntity.of(ProblemDetail.forStatusAndDetail(status, detail)).build();
     }
 
 }
@@ -0,0 +1,271 @@
+package org.sid.billingservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sid.billingservice.services.CustomerRestClient;
+import org.sid.billingservice.services.ProductRestClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Clients Feign réels (load balancer, timeouts, disjoncteurs, cloisons, hedging) face à des
+ * services simulés par des serveurs HTTP locaux qui injectent latence et erreurs.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:feign-resilience",
+        "eureka.client.enabled=false",
+        "billing.seed.enabled=false",
+        "billing.cache.products.invalidation.enabled=false",
+        "spring.cloud.openfeign.client.config.default.read-timeout=500",
+        "billing.remote.customer-service.max-concurrent=2",
+        "billing.remote.circuit-breaker.window-size=10",
+        "billing.remote.circuit-breaker.open-ms=60000",
+        "billing.remote.hedging.enabled=true",
+        "billing.remote.hedging.min-delay-ms=20",
+        "logging.level.org.sid=WARN"
+})
+class FeignResilienceTest {
+
+    private static final StubService inventoryA = new StubService("{\"latestSequence\":1,\"truncated\":false,\"changes\":[]}");
+    private static final StubService inventoryB = new StubService("{\"latestSequence\":1,\"truncated\":false,\"changes\":[]}");
+    private static final StubService customers = new StubService("{\"id\":\"c-1\",\"name\":\"Client\"}");
+
+    @Autowired
+    private ProductRestClient productRestClient;
+    @Autowired
+    private CustomerRestClient customerRestClient;
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakers;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void services(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances[INVENTORY-SERVICE][0].uri", inventoryA::uri);
+        registry.add("spring.cloud.discovery.client.simple.instances[INVENTORY-SERVICE][1].uri", inventoryB::uri);
+        registry.add("spring.cloud.discovery.client.simple.instances[CUSTOMER-SERVICE][0].uri", customers::uri);
+    }
+
+    @AfterAll
+    static void stopStubs() {
+        inventoryA.stop();
+        inventoryB.stop();
+        customers.stop();
+    }
+
+    @BeforeEach
+    void reset() {
+        inventoryA.behave(5, 0, 200);
+        inventoryB.behave(5, 0, 200);
+        customers.behave(5, 0, 200);
+        circuitBreakers.getAllCircuitBreakers().forEach(CircuitBreaker::reset);
+    }
+
+    @Test
+    void hedgingBoundsTailLatencyWhenOneInstanceStalls() {
+        // Une requête sur 12 servies par l'instance A reste bloquée 400 ms
+        inventoryA.behave(5, 12, 200);
+        long[] latencies = new long[200];
+        for (int i = 0; i < latencies.length; i++) {
+            long start = System.nanoTime();
+            assertEquals(1, productRestClient.ProductChanges(List.of()).getLatestSequence());
+            latencies[i] = (System.nanoTime() - start) / 1_000_000;
+        }
+
+        long p99 = percentile(latencies, 0.99);
+        assertTrue(p99 < 200, "p99 " + p99 + " ms");
+        assertTrue(meterRegistry.counter("billing.remote.hedges", "service", "inventory-service").count() > 0);
+    }
+
+    @Test
+    void circuitOpensAndFailsFastWhenServiceErrors() {
+        customers.behave(100, 0, 500);
+        List<Long> rejected = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            long start = System.nanoTime();
+            try {
+                customerRestClient.FindCustomerById("c-1");
+                fail("call should fail");
+            } catch (CallNotPermittedException e) {
+                rejected.add((System.nanoTime() - start) / 1_000_000);
+            } catch (RuntimeException e) {
+                // erreur 500 du service, avant ouverture du disjoncteur
+            }
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakers.circuitBreaker("customer-service").getState());
+        assertTrue(rejected.size() >= 25, "rejected " + rejected.size());
+        long p99 = percentile(rejected.stream().mapToLong(Long::longValue).toArray(), 0.99);
+        assertTrue(p99 < 50, "p99 of rejected calls " + p99 + " ms");
+    }
+
+    @Test
+    void bulkheadRejectsCustomerCallsBeyondItsPool() throws Exception {
+        customers.behave(300, 0, 200);
+        ExecutorService executor = Executors.newFixedThreadPool(6);
+        AtomicInteger bulkheadFull = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            futures.add(executor.submit(() -> {
+                try {
+                    customerRestClient.FindCustomerById("c-1");
+                } catch (BulkheadFullException e) {
+                    bulkheadFull.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        // Cloison de 2 appels côté clients ; les produits gardent leur propre pool
+        assertTrue(bulkheadFull.get() >= 3, "bulkhead rejections " + bulkheadFull.get());
+        assertEquals(1, productRestClient.ProductChanges(List.of()).getLatestSequence());
+    }
+
+    private static long percentile(long[] values, double percentile) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * percentile) - 1];
+    }
+
+    /**
+     * Service simulé : répond {@code body} après {@code latencyMs} ; une requête sur
+     * {@code stallEvery} attend 400 ms de plus. Compte les connexions ouvertes par les clients,
+     * compresse en gzip si le client l'accepte et, si {@code smile} est activé, répond en Smile
+     * aux clients qui le demandent.
+     */
+    static class StubService {
+
+        static {
+            // Sans TCP_NODELAY, en-têtes et corps écrits séparément attendent l'ACK différé (~40 ms) en keep-alive
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+
+        private final HttpServer server;
+        private final AtomicInteger served = new AtomicInteger();
+        private final Set<Integer> clientPorts = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger gzipped = new AtomicInteger();
+        private final AtomicInteger smileServed = new AtomicInteger();
+        private volatile boolean smile;
+        private volatile long latencyMs = 5;
+        private volatile int stallEvery;
+        private volatile int status = 200;
+
+        private static final ObjectMapper SMILE = new ObjectMapper(new SmileFactory());
+
+        StubService(String body) {
+            try {
+                server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/", exchange -> {
+                int n = served.incrementAndGet();
+                clientPorts.add(exchange.getRemoteAddress().getPort());
+                try {
+                    Thread.sleep(latencyMs + (stallEvery > 0 && n % stallEvery == 0 ? 400 : 0));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+                String accept = exchange.getRequestHeaders().getFirst("Accept");
+                if (smile && accept != null && accept.contains("application/x-jackson-smile")) {
+                    bytes = SMILE.writeValueAsBytes(new ObjectMapper().readTree(bytes));
+                    exchange.getResponseHeaders().set("Content-Type", "application/x-jackson-smile");
+                    smileServed.incrementAndGet();
+                } else {
+                    exchange.getResponseHeaders().set("Content-Type", "application/json");
+                }
+                String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+                if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                    bytes = gzip(bytes);
+                    exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+                    gzipped.incrementAndGet();
+                }
+                exchange.sendResponseHeaders(status, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            });
+            server.start();
+        }
+
+        void behave(long latencyMs, int stallEvery, int status) {
+            this.latencyMs = latencyMs;
+            this.stallEvery = stallEvery;
+            this.status = status;
+        }
+
+        /** Nombre de connexions distinctes ouvertes par les clients depuis le démarrage. */
+        int connections() {
+            return clientPorts.size();
+        }
+
+        int served() {
+            return served.get();
+        }
+
+        int gzipped() {
+            return gzipped.get();
+        }
+
+        void smile(boolean smile) {
+            this.smile = smile;
+        }
+
+        int smileServed() {
+            return smileServed.get();
+        }
+
+        String uri() {
+            return "http://localhost:" + server.getAddress().getPort();
+        }
+
+        void stop() {
+            server.stop(0);
+        }
+
+        private static byte[] gzip(byte[] bytes) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+                out.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return buffer.toByteArray();
+        }
+    }
+}
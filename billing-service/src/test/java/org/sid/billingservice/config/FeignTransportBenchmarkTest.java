@@ -0,0 +1,100 @@
+package org.sid.billingservice.config;
+
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import feign.hc5.ApacheHttp5Client;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Débit des transports Feign face à un service local : pool Apache HttpClient 5, même client
+ * sans réutilisation des connexions, et client par défaut ({@code HttpURLConnection}).
+ * En local, ouvrir une connexion ne coûte ni aller-retour réseau ni TLS : l'écart est un minimum.
+ * mvn test -Dbenchmark=true -Dtest=FeignTransportBenchmarkTest [-Dbenchmark.requests=5000]
+ */
+class FeignTransportBenchmarkTest {
+
+    private static final int THREADS = 16;
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 5000);
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void pooledConnectionsOutperformNewConnectionPerRequest() throws Exception {
+        Client pooled = new ApacheHttp5Client(HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setMaxConnPerRoute(THREADS)
+                        .setMaxConnTotal(THREADS)
+                        .build())
+                .build());
+        Client noReuse = new ApacheHttp5Client(HttpClients.custom()
+                .setConnectionReuseStrategy((request, response, context) -> false)
+                .build());
+        Client urlConnection = new Client.Default(null, null);
+
+        double pooledRate = run("pooled hc5", pooled);
+        double noReuseRate = run("hc5 without reuse", noReuse);
+        run("HttpURLConnection", urlConnection);
+
+        assertTrue(pooledRate > noReuseRate, "pooled " + pooledRate + " req/s, no reuse " + noReuseRate + " req/s");
+    }
+
+    private static double run(String label, Client client) throws Exception {
+        FeignResilienceTest.StubService stub = new FeignResilienceTest.StubService("{\"id\":\"c-1\",\"name\":\"Client\"}");
+        stub.behave(0, 0, 200);
+        try {
+            Request request = Request.create(Request.HttpMethod.GET, stub.uri() + "/api/customers/c-1",
+                    Map.of(), null, StandardCharsets.UTF_8, null);
+            Request.Options options = new Request.Options();
+            // Chauffe (JIT, pool) hors mesure
+            execute(client, request, options, REQUESTS / 2);
+            int warmupConnections = stub.connections();
+
+            long start = System.nanoTime();
+            execute(client, request, options, REQUESTS);
+            long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            double rate = REQUESTS * 1000.0 / elapsedMs;
+            System.out.printf("[benchmark] %s: %d requests in %d ms (%.0f req/s), %d new connections%n",
+                    label, REQUESTS, elapsedMs, rate, stub.connections() - warmupConnections);
+            return rate;
+        } finally {
+            stub.stop();
+        }
+    }
+
+    private static void execute(Client client, Request request, Request.Options options, int requests)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                futures.add(executor.submit(() -> {
+                    try (Response response = client.execute(request, options);
+                         InputStream body = response.body().asInputStream()) {
+                        assertEquals(200, response.status());
+                        body.readAllBytes();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
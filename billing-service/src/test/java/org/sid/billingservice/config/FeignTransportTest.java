@@ -0,0 +1,104 @@
+package org.sid.billingservice.config;
+
+import feign.Client;
+import feign.hc5.ApacheHttp5Client;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.sid.billingservice.services.CustomerRestClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Transport des clients Feign : pool Apache HttpClient 5, connexions réutilisées, réponses gzip,
+ * représentation Smile avec repli JSON et métriques du pool.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:feign-transport",
+        "eureka.client.enabled=false",
+        "billing.seed.enabled=false",
+        "billing.cache.products.invalidation.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+class FeignTransportTest {
+
+    private static final FeignResilienceTest.StubService customers =
+            new FeignResilienceTest.StubService("{\"id\":\"c-1\",\"name\":\"Client\"}");
+
+    @Autowired
+    private Client feignClient;
+    @Autowired
+    private CustomerRestClient customerRestClient;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void services(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances[CUSTOMER-SERVICE][0].uri", customers::uri);
+    }
+
+    @AfterAll
+    static void stopStubs() {
+        customers.stop();
+    }
+
+    @Test
+    void loadBalancedClientUsesPooledApacheTransport() {
+        FeignBlockingLoadBalancerClient loadBalanced = assertInstanceOf(FeignBlockingLoadBalancerClient.class, feignClient);
+        assertInstanceOf(ApacheHttp5Client.class, loadBalanced.getDelegate());
+    }
+
+    @Test
+    void connectionsAreReusedAndGzipResponsesDecoded() throws Exception {
+        customers.behave(1, 0, 200);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            futures.add(executor.submit(() -> customerRestClient.FindCustomerById("c-1").getName()));
+        }
+        for (Future<String> future : futures) {
+            assertEquals("Client", future.get());
+        }
+        executor.shutdown();
+
+        // 4 appelants simultanés : au plus 4 connexions pour 200 requêtes
+        assertTrue(customers.served() >= 200);
+        assertTrue(customers.connections() <= 4, "connections " + customers.connections());
+        assertEquals(customers.served(), customers.gzipped());
+    }
+
+    @Test
+    void smileIsRequestedAndJsonAcceptedAsFallback() {
+        customers.behave(1, 0, 200);
+        customers.smile(true);
+        int smileBefore = customers.smileServed();
+        assertEquals("Client", customerRestClient.FindCustomerById("c-1").getName());
+        assertEquals(smileBefore + 1, customers.smileServed());
+
+        // Service sans Smile : réponse JSON
+        customers.smile(false);
+        assertEquals("Client", customerRestClient.FindCustomerById("c-1").getName());
+        assertEquals(smileBefore + 1, customers.smileServed());
+    }
+
+    @Test
+    void poolMetricsArePublished() {
+        Gauge max = meterRegistry.find("httpcomponents.httpclient.pool.total.max").tag("httpclient", "feign").gauge();
+        assertNotNull(max);
+        assertEquals(100, max.value());
+        assertNotNull(meterRegistry.find("httpcomponents.httpclient.pool.total.connections")
+                .tags("httpclient", "feign", "state", "available").gauge());
+    }
+}
@@ -0,0 +1,88 @@
+package org.sid.billingservice.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Requêtes bloquantes (≈ 50 ms d'attente réseau, comme un appel Feign) servies par un pool fixe de
+ * 200 threads (défaut Tomcat {@code server.tomcat.threads.max}) ou par un thread virtuel par tâche.
+ * Au-delà de 200 requêtes simultanées le pool fait la queue, les threads virtuels non.
+ * JAVA_HOME=jdk21 mvn test -Pvirtual-threads -Dbenchmark=true -Dtest=VirtualThreadsBenchmarkTest
+ */
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadsBenchmarkTest {
+
+    private static final int POOL_THREADS = 200;
+    private static final long BLOCKING_MS = Long.getLong("benchmark.blocking-ms", 50);
+    private static final int[] CONCURRENCY = {50, 200, 800, 3200};
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void virtualThreadsScaleBeyondFixedPool() throws Exception {
+        double poolRate = 0;
+        double virtualRate = 0;
+        for (int concurrency : CONCURRENCY) {
+            ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+            pool.setCorePoolSize(POOL_THREADS);
+            pool.setMaxPoolSize(POOL_THREADS);
+            pool.setThreadNamePrefix("bench-pool-");
+            pool.initialize();
+            SimpleAsyncTaskExecutor virtual = new SimpleAsyncTaskExecutor("bench-virtual-");
+            virtual.setVirtualThreads(true);
+            try {
+                // Chauffe hors mesure
+                run(pool, concurrency);
+                run(virtual, concurrency);
+                poolRate = report("fixed pool (" + POOL_THREADS + ")", concurrency, run(pool, concurrency));
+                virtualRate = report("virtual threads", concurrency, run(virtual, concurrency));
+            } finally {
+                pool.shutdown();
+            }
+        }
+        // 3200 requêtes simultanées : 16 vagues pour le pool, une seule pour les threads virtuels
+        assertTrue(virtualRate > poolRate, "virtual " + virtualRate + " req/s, pool " + poolRate + " req/s");
+    }
+
+    /**
+     * Soumet {@code concurrency} requêtes d'un coup ; renvoie les latences (ms, attente en file comprise)
+     * suivies de la durée totale.
+     */
+    private static long[] run(AsyncTaskExecutor executor, int concurrency) throws Exception {
+        long start = System.nanoTime();
+        List<Future<Long>> futures = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            futures.add(executor.submit(() -> {
+                Thread.sleep(BLOCKING_MS);
+                return (System.nanoTime() - start) / 1_000_000;
+            }));
+        }
+        long[] results = new long[concurrency + 1];
+        for (int i = 0; i < concurrency; i++) {
+            results[i] = futures.get(i).get();
+        }
+        results[concurrency] = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        return results;
+    }
+
+    private static double report(String label, int concurrency, long[] results) {
+        long elapsedMs = results[concurrency];
+        long[] latencies = Arrays.copyOf(results, concurrency);
+        Arrays.sort(latencies);
+        double rate = concurrency * 1000.0 / elapsedMs;
+        System.out.printf("[benchmark] %s, %d concurrent: p50 %d ms, p99 %d ms, %.0f req/s%n", label, concurrency,
+                latencies[concurrency / 2], latencies[Math.min(concurrency - 1, concurrency * 99 / 100)], rate);
+        return rate;
+    }
+}
@@ -0,0 +1,142 @@
+package org.sid.billingservice.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.sid.billingservice.entities.Bill;
+import org.sid.billingservice.entities.ProductItem;
+import org.sid.billingservice.model.Customer;
+import org.sid.billingservice.model.Product;
+import org.sid.billingservice.records.CreateBillRequest;
+import org.sid.billingservice.repository.BillRepository;
+import org.sid.billingservice.repository.ProductItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Création de factures de 500 lignes : vérifie la persistance en cascade et le batching JDBC.
+ * Comparaison de débit avec l'ancienne sauvegarde ligne par ligne :
+ * mvn test -Dbenchmark=true [-Dbenchmark.bills=50]
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bill-creation",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "billing.seed.enabled=false",
+        "billing.cache.products.invalidation.enabled=false",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+class BillCreationLoadTest {
+
+    private static final int LINES = 500;
+    private static final int BILLS = Integer.getInteger("benchmark.bills", 50);
+
+    @MockBean
+    private CustomerRestClient customerRestClient;
+    @MockBean
+    private ProductRestClient productRestClient;
+
+    @Autowired
+    private BillService billService;
+    @Autowired
+    private BillRepository billRepository;
+    @Autowired
+    private ProductItemRepository productItemRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Customer customer = new Customer();
+        customer.setId("c-1");
+        when(customerRestClient.FindCustomerById(anyString())).thenReturn(customer);
+        when(productRestClient.FindProductsByIds(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return ids.stream().map(id -> {
+                Product product = new Product();
+                product.setId(id);
+                product.setPrice(id + 0.5);
+                return product;
+            }).toList();
+        });
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void persistsBillAndLinesWithBatchedInserts() {
+        Bill bill = billService.createBill(request());
+
+        assertEquals(1, statistics.getTransactionCount());
+        assertEquals(LINES + 1, statistics.getEntityInsertCount());
+        // Sans batching chaque ligne prépare son propre statement (plus de 500 au total)
+        assertTrue(statistics.getPrepareStatementCount() < LINES / 2,
+                "prepared statements: " + statistics.getPrepareStatementCount());
+        assertNotNull(bill.getId());
+        assertEquals(LINES, productItemRepository.count() - countItemsOfOtherBills(bill.getId()));
+    }
+
+    @Test
+    void rejectsUnknownProduct() {
+        when(productRestClient.FindProductsByIds(anyCollection())).thenReturn(List.of());
+
+        assertThrows(RuntimeException.class, () -> billService.createBill(request()));
+        assertEquals(0, statistics.getEntityInsertCount());
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "benchmark", matches = "true")
+    void compareWithPerItemSaves() {
+        long start = System.nanoTime();
+        for (int b = 0; b < BILLS; b++) {
+            Bill bill = billRepository.save(Bill.builder().billDate(new Date()).customerId("c-1").build());
+            for (CreateBillRequest.Line line : request().lines()) {
+                productItemRepository.save(ProductItem.builder()
+                        .bill(bill).productId(line.productId()).quantity(line.quantity()).price(1).build());
+            }
+        }
+        long perItemMs = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        for (int b = 0; b < BILLS; b++) {
+            billService.createBill(request());
+        }
+        long batchedMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("[benchmark] per-item saves: %d ms for %d bills of %d lines (%.1f bills/s)%n",
+                perItemMs, BILLS, LINES, BILLS * 1000.0 / perItemMs);
+        System.out.printf("[benchmark] batched cascade: %d ms for %d bills of %d lines (%.1f bills/s)%n",
+                batchedMs, BILLS, LINES, BILLS * 1000.0 / batchedMs);
+    }
+
+    private long countItemsOfOtherBills(String billId) {
+        return productItemRepository.findAll().stream()
+                .filter(pi -> !billId.equals(pi.getBill().getId()))
+                .count();
+    }
+
+    private static CreateBillRequest request() {
+        List<CreateBillRequest.Line> lines = new ArrayList<>(LINES);
+        for (long i = 1; i <= LINES; i++) {
+            lines.add(new CreateBillRequest.Line(i, 1 + (int) (i % 5), 0.1));
+        }
+        return new CreateBillRequest("c-1", lines);
+    }
+}
@@ -0,0 +1,120 @@
+package org.sid.billingservice.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.sid.billingservice.entities.Bill;
+import org.sid.billingservice.entities.ProductItem;
+import org.sid.billingservice.model.Customer;
+import org.sid.billingservice.model.Product;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class BillEnrichmentServiceTest {
+
+    private final CustomerRestClient customerRestClient = mock(CustomerRestClient.class);
+    private final ProductRestClient productRestClient = mock(ProductRestClient.class);
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void largeBillIsEnrichedWithOneProductCall() {
+        stubProducts(0);
+        when(customerRestClient.FindCustomerById("1")).thenReturn(new Customer());
+        BillEnrichmentService service = new BillEnrichmentService(cache(), executor, 2000, 500);
+
+        Bill bill = service.enrich(bill(2000, 300), true);
+
+        verify(productRestClient, times(1)).FindProductsByIds(argThat(ids -> ids.size() == 300));
+        verify(productRestClient, never()).FindProductById(anyLong());
+        verify(customerRestClient, times(1)).FindCustomerById(anyString());
+        bill.getProductItems().forEach(pi -> assertEquals(pi.getProductId(), pi.getProduct().getId()));
+        assertNull(bill.getMissingEnrichments());
+    }
+
+    @Test
+    void slowCallsRunConcurrently() {
+        stubProducts(300);
+        when(customerRestClient.FindCustomerById("1")).thenAnswer(inv -> {
+            Thread.sleep(300);
+            return new Customer();
+        });
+        BillEnrichmentService service = new BillEnrichmentService(cache(), executor, 2000, 100);
+
+        long start = System.nanoTime();
+        Bill bill = service.enrich(bill(300, 300), true);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // 1 appel client + 3 appels produits de 300 ms : 1200 ms en séquentiel
+        verify(productRestClient, times(3)).FindProductsByIds(anyCollection());
+        assertTrue(elapsedMs < 800, "enrichment took " + elapsedMs + " ms");
+        assertNotNull(bill.getCustomer());
+        assertNull(bill.getMissingEnrichments());
+    }
+
+    @Test
+    void failedOrSlowCallsYieldPartialBill() {
+        stubProducts(2000);
+        when(customerRestClient.FindCustomerById("1")).thenThrow(new RuntimeException("customer-service down"));
+        BillEnrichmentService service = new BillEnrichmentService(cache(), executor, 200, 500);
+
+        long start = System.nanoTime();
+        Bill bill = service.enrich(bill(10, 10), true);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMs < 1000, "enrichment took " + elapsedMs + " ms");
+        assertNull(bill.getCustomer());
+        assertTrue(bill.getMissingEnrichments().contains(BillEnrichmentService.CUSTOMER));
+        assertTrue(bill.getMissingEnrichments().contains(BillEnrichmentService.PRODUCTS));
+        bill.getProductItems().forEach(pi -> assertNull(pi.getProduct()));
+    }
+
+    @Test
+    void failedCallFailsBillWhenPartialIsDisabled() {
+        stubProducts(0);
+        when(customerRestClient.FindCustomerById("1")).thenThrow(new RuntimeException("customer-service down"));
+        BillEnrichmentService service = new BillEnrichmentService(cache(), executor, 2000, 500);
+
+        assertThrows(RuntimeException.class, () -> service.enrich(bill(10, 10), false));
+    }
+
+    private RemoteModelCache cache() {
+        return new RemoteModelCache(customerRestClient, productRestClient, new SimpleMeterRegistry(),
+                100, Duration.ofMinutes(1), 10_000, Duration.ofMinutes(1));
+    }
+
+    private void stubProducts(long delayMs) {
+        when(productRestClient.FindProductsByIds(anyCollection())).thenAnswer(inv -> {
+            if (delayMs > 0) Thread.sleep(delayMs);
+            Collection<Long> ids = inv.getArgument(0);
+            return ids.stream().map(id -> {
+                Product p = new Product();
+                p.setId(id);
+                return p;
+            }).toList();
+        });
+    }
+
+    private static Bill bill(int items, int distinctProducts) {
+        List<ProductItem> productItems = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            productItems.add(ProductItem.builder().productId((long) (i % distinctProducts)).quantity(1).price(10).build());
+        }
+        return Bill.builder().customerId("1").productItems(productItems).build();
+    }
+}
@@ -0,0 +1,79 @@
+package org.sid.billingservice.services;
+
+import org.junit.jupiter.api.Test;
+import org.sid.billingservice.model.ProductChange;
+import org.sid.billingservice.model.ProductChangeBatch;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductChangeSubscriberTest {
+
+    private final ProductRestClient productRestClient = mock(ProductRestClient.class);
+    private final RemoteModelCache remoteModelCache = mock(RemoteModelCache.class);
+    private final ProductChangeSubscriber subscriber = new ProductChangeSubscriber(productRestClient, remoteModelCache, Duration.ofMinutes(10));
+
+    @Test
+    void evictsChangedProductsAndResumesFromLatestSequence() {
+        when(productRestClient.ProductChanges(List.of())).thenReturn(batch("a", 5, false));
+        when(productRestClient.ProductChanges(List.of("a:5"))).thenReturn(batch("a", 7, false, 3L, 4L));
+
+        subscriber.poll();
+        subscriber.poll();
+
+        verify(remoteModelCache).evictProduct(3L);
+        verify(remoteModelCache).evictProduct(4L);
+        verify(remoteModelCache, never()).evictAllProducts();
+    }
+
+    @Test
+    void truncatedFeedEvictsEverything() {
+        when(productRestClient.ProductChanges(List.of())).thenReturn(batch("a", 2, true));
+
+        subscriber.poll();
+
+        verify(remoteModelCache).evictAllProducts();
+    }
+
+    @Test
+    void keepsOneCursorPerInstance() {
+        // A et B à 50 chacune, puis chacune enregistre son propre événement 51
+        subscriber.apply(batch("a", 50, false));
+        subscriber.apply(batch("b", 50, false));
+        verify(remoteModelCache).evictAllProducts();
+
+        subscriber.apply(batch("b", 51, false, 2L));
+        assertEquals(List.of("a:50", "b:51"), subscriber.cursorParameters().stream().sorted().toList());
+
+        // A reçoit son curseur (50) et non celui de B : son événement 51 n'est pas sauté
+        subscriber.apply(batch("a", 51, false, 1L));
+        verify(remoteModelCache).evictProduct(1L);
+        verify(remoteModelCache).evictProduct(2L);
+        verify(remoteModelCache, times(1)).evictAllProducts();
+    }
+
+    @Test
+    void restartedInstanceEvictsEverything() {
+        subscriber.apply(batch("a", 50, false));
+        subscriber.apply(batch("a-restarted", 0, false));
+
+        verify(remoteModelCache).evictAllProducts();
+    }
+
+    private static ProductChangeBatch batch(String instanceId, long latest, boolean truncated, Long... productIds) {
+        ProductChangeBatch batch = new ProductChangeBatch();
+        batch.setInstanceId(instanceId);
+        batch.setLatestSequence(latest);
+        batch.setTruncated(truncated);
+        batch.setChanges(List.of(productIds).stream().map(id -> {
+            ProductChange change = new ProductChange();
+            change.setProductId(id);
+            change.setType("UPDATED");
+            return change;
+        }).toList());
+        return batch;
+    }
+}
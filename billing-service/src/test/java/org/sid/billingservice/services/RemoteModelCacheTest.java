@@ -0,0 +1,94 @@
+package org.sid.billingservice.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.sid.billingservice.model.Customer;
+import org.sid.billingservice.model.Product;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class RemoteModelCacheTest {
+
+    private final CustomerRestClient customerRestClient = mock(CustomerRestClient.class);
+    private final ProductRestClient productRestClient = mock(ProductRestClient.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RemoteModelCache cache = new RemoteModelCache(customerRestClient, productRestClient, meterRegistry,
+            100, Duration.ofMinutes(1), 100, Duration.ofMinutes(1));
+
+    @Test
+    void repeatedLookupsOnlyFetchMissingProducts() {
+        when(productRestClient.FindProductsByIds(anyCollection())).thenAnswer(inv -> products(inv.getArgument(0)));
+
+        cache.getProducts(List.of(1L, 2L, 3L));
+        Map<Long, Product> result = cache.getProducts(List.of(1L, 2L, 3L, 4L));
+
+        assertEquals(4, result.size());
+        verify(productRestClient).FindProductsByIds(argThat(ids -> ids.size() == 3));
+        verify(productRestClient).FindProductsByIds(argThat(ids -> ids.size() == 1 && ids.contains(4L)));
+        assertEquals(3.0, meterRegistry.get("cache.gets").tag("cache", "billing.products").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void concurrentMissesOnSameIdTriggerOneRemoteCall() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(customerRestClient.FindCustomerById(anyString())).thenAnswer(inv -> {
+            release.await();
+            return new Customer();
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Customer>> futures = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                futures.add(executor.submit(() -> cache.getCustomer("1")));
+            }
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<Customer> future : futures) {
+                assertNotNull(future.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(customerRestClient, times(1)).FindCustomerById("1");
+    }
+
+    @Test
+    void evictedProductIsFetchedAgain() {
+        when(productRestClient.FindProductsByIds(anyCollection())).thenAnswer(inv -> products(inv.getArgument(0)));
+
+        cache.getProducts(List.of(1L));
+        cache.evictProduct(1L);
+        cache.getProducts(List.of(1L));
+
+        verify(productRestClient, times(2)).FindProductsByIds(anyCollection());
+    }
+
+    @Test
+    void failedLoadIsNotCached() {
+        when(customerRestClient.FindCustomerById("1"))
+                .thenThrow(new RuntimeException("customer-service down"))
+                .thenReturn(new Customer());
+
+        assertThrows(CompletionException.class, () -> cache.getCustomer("1"));
+        assertNotNull(cache.getCustomer("1"));
+    }
+
+    private static List<Product> products(Collection<Long> ids) {
+        return ids.stream().map(id -> {
+            Product p = new Product();
+            p.setId(id);
+            return p;
+        }).toList();
+    }
+}
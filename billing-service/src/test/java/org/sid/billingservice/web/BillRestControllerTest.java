@@ -0,0 +1,124 @@
+package org.sid.billingservice.web;
+
+import feign.FeignException;
+import feign.Request;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import org.junit.jupiter.api.Test;
+import org.sid.billingservice.model.Customer;
+import org.sid.billingservice.model.Product;
+import org.sid.billingservice.services.CustomerRestClient;
+import org.sid.billingservice.services.ProductRestClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Statuts de POST /bills : erreurs de la requête (400, 404) distinguées des pannes distantes (502, 503).
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bill-rest-controller",
+        "billing.seed.enabled=false",
+        "billing.cache.products.invalidation.enabled=false",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+@AutoConfigureMockMvc
+class BillRestControllerTest {
+
+    private static final Request REQUEST = Request.create(Request.HttpMethod.GET, "/api/customers/x",
+            Map.of(), null, StandardCharsets.UTF_8, null);
+
+    @MockBean
+    private CustomerRestClient customerRestClient;
+    @MockBean
+    private ProductRestClient productRestClient;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void billIsCreated() throws Exception {
+        knownCustomer("created");
+        when(productRestClient.FindProductsByIds(anyCollection())).thenReturn(List.of(product(1L)));
+
+        createBill("created", 1L)
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.productItems.length()").value(1));
+    }
+
+    @Test
+    void invalidRequestIsBadRequestWithMessage() throws Exception {
+        mockMvc.perform(post("/bills")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"customerId\": \"c\", \"lines\": []}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("A bill needs a customer and at least one line"));
+    }
+
+    @Test
+    void unknownCustomerOrProductIsNotFound() throws Exception {
+        when(customerRestClient.FindCustomerById("missing"))
+                .thenThrow(new FeignException.NotFound("not found", REQUEST, null, null));
+        createBill("missing", 1L)
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.detail").value("Customer not found with id: missing"));
+
+        knownCustomer("no-product");
+        when(productRestClient.FindProductsByIds(anyCollection())).thenReturn(List.of());
+        createBill("no-product", 42L)
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.detail").value("Product not found with id: 42"));
+    }
+
+    @Test
+    void openCircuitIsServiceUnavailable() throws Exception {
+        // L'échec du chargement du client arrive enveloppé dans une CompletionException
+        when(customerRestClient.FindCustomerById("open-circuit"))
+                .thenThrow(CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("customer-service")));
+        createBill("open-circuit", 1L)
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    void remoteErrorIsBadGateway() throws Exception {
+        knownCustomer("remote-error");
+        when(productRestClient.FindProductsByIds(anyCollection()))
+                .thenThrow(new FeignException.InternalServerError("boom", REQUEST, null, null));
+        createBill("remote-error", 1L)
+                .andExpect(status().isBadGateway());
+    }
+
+    private ResultActions createBill(String customerId, long productId) throws Exception {
+        return mockMvc.perform(post("/bills")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"customerId\": \"" + customerId + "\", \"lines\": [{\"productId\": " + productId
+                        + ", \"quantity\": 1, \"discount\": 0}]}"));
+    }
+
+    private void knownCustomer(String id) {
+        Customer customer = new Customer();
+        customer.setId(id);
+        when(customerRestClient.FindCustomerById(id)).thenReturn(customer);
+    }
+
+    private static Product product(long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setPrice(10);
+        return product;
+    }
+}
@@ -0,0 +1,31 @@
+package org.sid.customerservice.config;
+
+import lombok.RequiredArgsConstructor;
+import org.sid.customerservice.entities.Customer;
+import org.sid.customerservice.services.CustomerCache;
+import org.springframework.data.rest.core.annotation.HandleAfterDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterSave;
+import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Les écritures faites par Spring Data REST ({@code /customers}) contournent CustomerServiceImpl :
+ * elles évincent ici l'entrée du cache.
+ */
+@Component
+@RepositoryEventHandler(Customer.class)
+@RequiredArgsConstructor
+public class CustomerRepositoryEventHandler {
+
+    private final CustomerCache customerCache;
+
+    @HandleAfterSave
+    public void afterSave(Customer customer) {
+        customerCache.evict(customer.getId());
+    }
+
+    @HandleAfterDelete
+    public void afterDelete(Customer customer) {
+        customerCache.evict(customer.getId());
+    }
+}
@@ -1,9 +1,6 @@
 package org.sid.customerservice.entities;
 
-import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
-import jakarta.persistence.Id;
+import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
@@ -12,11 +9,27 @@ import lombok.*;
 @AllArgsConstructor
 @Builder
 @ToString
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_customer_email", columnNames = "email"))
 public class Customer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // UUID généré côté application : pas d'aller-retour vers la base, les INSERT restent batchables
+    @GeneratedValue(strategy = GenerationType.UUID)
     private String id;
     private String name;
     private String email;
-}
\ No newline at end of file
+    @Version
+    private Long version;
+
+    /**
+     * Un email vide est enregistré comme absent : la contrainte uk_customer_email accepte plusieurs
+     * NULL mais pas deux chaînes vides. Appelé aussi par Spring Data REST via les callbacks JPA.
+     */
+    @PrePersist
+    @PreUpdate
+    public void normalizeEmail() {
+        if (email != null && email.isBlank()) {
+            email = null;
+        }
+    }
+}
@@ -2,8 +2,14 @@ package org.sid.customerservice.mappers;
 
 import org.sid.customerservice.records.PagedResponse;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
 @Component
 public class PagedResponseMapper {
 
@@ -13,7 +19,38 @@ public class PagedResponseMapper {
                 page.getSize(),
                 page.getNumber(),
                 page.getTotalElements(),
-                page.getTotalPages()
+                page.getTotalPages(),
+                null
         );
     }
+
+    /**
+     * Les totaux ne sont renseignés que si le résultat est une {@link Page} (COUNT exécuté ou en cache).
+     */
+    public <T> PagedResponse<T> toPagedResponse(Slice<T> slice) {
+        if (slice instanceof Page<T> page) {
+            return toPagedResponse(page);
+        }
+        return new PagedResponse<>(slice.getContent(), slice.getSize(), slice.getNumber(), null, null, null);
+    }
+
+    public <T> PagedResponse<T> toCursorResponse(Slice<T> slice, Function<T, ?> keyExtractor) {
+        List<T> content = slice.getContent();
+        String nextCursor = slice.hasNext() && !content.isEmpty()
+                ? encodeCursor(keyExtractor.apply(content.get(content.size() - 1)))
+                : null;
+        return new PagedResponse<>(content, slice.getSize(), null, null, null, nextCursor);
+    }
+
+    public String encodeCursor(Object key) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(String.valueOf(key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException si le curseur n'a pas été produit par {@link #encodeCursor}
+     */
+    public String decodeCursor(String cursor) {
+        return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+    }
 }
\ No newline at end of file
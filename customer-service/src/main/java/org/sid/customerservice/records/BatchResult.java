@@ -0,0 +1,12 @@
+package org.sid.customerservice.records;
+
+import java.util.List;
+
+public record BatchResult(
+        int received,
+        int created,
+        List<BatchError> errors
+) {
+    public record BatchError(int index, String message) {
+    }
+}
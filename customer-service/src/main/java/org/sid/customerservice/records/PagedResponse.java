@@ -1,11 +1,19 @@
 package org.sid.customerservice.records;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
+/**
+ * Page de résultats. En mode curseur (keyset), {@code currentPage} et les totaux sont absents
+ * et {@code nextCursor} permet de demander la page suivante.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public record PagedResponse<T>(
         List<T> content,
         int size,
-        int currentPage,
-        long totalItems,
-        int totalPages
+        Integer currentPage,
+        Long totalItems,
+        Integer totalPages,
+        String nextCursor
 ) {
 }
\ No newline at end of file
@@ -1,16 +1,47 @@
 package org.sid.customerservice.repository;
 
+import jakarta.persistence.QueryHint;
 import org.sid.customerservice.entities.Customer;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+import org.springframework.data.rest.core.annotation.RestResource;
 
+import java.util.Collection;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @RepositoryRestResource
 public interface  CustomerRepository extends JpaRepository<Customer, String> {
     Optional<Customer> findByEmail(String email);
     boolean existsByEmail(String email);
 
+    @Query("SELECT c.email FROM Customer c WHERE c.email IN :emails")
+    @RestResource(exported = false)
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    @Query("SELECT c.version FROM Customer c WHERE c.id = :id")
+    @RestResource(exported = false)
+    Optional<Long> findVersionById(@Param("id") String id);
+
+    @RestResource(exported = false)
+    Slice<Customer> findAllBy(Pageable pageable);
+
+    @RestResource(exported = false)
+    Slice<Customer> findByIdGreaterThanOrderByIdAsc(String id, Pageable pageable);
+
+    @Query("SELECT c FROM Customer c ORDER BY c.id")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @RestResource(exported = false)
+    Stream<Customer> streamAll();
+
 }
@@ -0,0 +1,75 @@
+package org.sid.customerservice.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache de courte durée des COUNT de pagination, par forme de requête (filtre + paramètres).
+ * Vidé après le commit de chaque écriture ; le TTL borne l'écart pour les écritures faites hors du service.
+ */
+@Component
+public class CountCache {
+
+    private record Entry(long count, long expiresAt) {
+    }
+
+    private final Map<String, Entry> counts = new ConcurrentHashMap<>();
+    // Incrémentée à chaque vidage : un COUNT commencé avant n'est pas mis en cache
+    private final AtomicLong generation = new AtomicLong();
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    public CountCache(@Value("${count-cache.ttl:30s}") Duration ttl,
+                      @Value("${count-cache.max-entries:1000}") int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    public long get(String key, LongSupplier counter) {
+        long now = System.nanoTime();
+        Entry entry = counts.get(key);
+        if (entry != null && entry.expiresAt() - now > 0) {
+            return entry.count();
+        }
+        long started = generation.get();
+        long count = counter.getAsLong();
+        if (counts.size() >= maxEntries) {
+            counts.clear();
+        }
+        counts.put(key, new Entry(count, now + ttlNanos));
+        if (generation.get() != started) {
+            counts.remove(key);
+        }
+        return count;
+    }
+
+    /**
+     * Vide le cache après commit si une transaction est en cours : vidé avant, un lecteur
+     * concurrent remettrait en cache l'ancien total pour toute la durée du TTL.
+     */
+    public void invalidateAll() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    clear();
+                }
+            });
+        } else {
+            clear();
+        }
+    }
+
+    private void clear() {
+        generation.incrementAndGet();
+        counts.clear();
+    }
+}
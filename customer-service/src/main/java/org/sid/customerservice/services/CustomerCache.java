@@ -0,0 +1,85 @@
+package org.sid.customerservice.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.sid.customerservice.entities.Customer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Cache des clients par id, en lecture traversante. Les écritures du service évincent l'entrée
+ * après commit ; le TTL borne l'écart pour les autres écritures, dont celles des autres
+ * instances, qui n'évincent que leur propre cache.
+ * Les entrées sont des copies détachées : un appelant ne peut pas modifier la valeur en cache.
+ */
+@Component
+public class CustomerCache {
+
+    private final Cache<String, Customer> customers;
+    private final boolean enabled;
+
+    public CustomerCache(MeterRegistry meterRegistry,
+                         @Value("${customer.cache.customers.enabled:true}") boolean enabled,
+                         @Value("${customer.cache.customers.max-size:10000}") long maxSize,
+                         @Value("${customer.cache.customers.ttl:30s}") Duration ttl) {
+        this.enabled = enabled;
+        this.customers = CaffeineCacheMetrics.monitor(meterRegistry,
+                Caffeine.newBuilder()
+                        .maximumSize(maxSize)
+                        .expireAfterWrite(ttl)
+                        .recordStats()
+                        .<String, Customer>build(),
+                "customer.customers");
+        Gauge.builder("cache.hit.ratio", customers, c -> c.stats().hitRate())
+                .tag("cache", "customer.customers")
+                .register(meterRegistry);
+    }
+
+    public Optional<Customer> get(String id, Function<String, Optional<Customer>> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        // Chargement sous le verrou de la clé : une éviction concurrente attend sa fin
+        Customer customer = customers.get(id, key -> loader.apply(key).map(CustomerCache::copy).orElse(null));
+        return Optional.ofNullable(customer).map(CustomerCache::copy);
+    }
+
+    public Optional<Long> cachedVersion(String id) {
+        Customer customer = enabled ? customers.getIfPresent(id) : null;
+        return Optional.ofNullable(customer).map(Customer::getVersion);
+    }
+
+    /**
+     * Évince l'entrée, après commit si une transaction est en cours.
+     */
+    public void evict(String id) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    customers.invalidate(id);
+                }
+            });
+        } else {
+            customers.invalidate(id);
+        }
+    }
+
+    private static Customer copy(Customer customer) {
+        return Customer.builder()
+                .id(customer.getId())
+                .name(customer.getName())
+                .email(customer.getEmail())
+                .version(customer.getVersion())
+                .build();
+    }
+}
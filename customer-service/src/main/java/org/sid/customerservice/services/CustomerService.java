@@ -1,22 +1,36 @@
 package org.sid.customerservice.services;
 
 import org.sid.customerservice.entities.Customer;
+import org.sid.customerservice.records.BatchResult;
 import org.sid.customerservice.records.PagedResponse;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface CustomerService {
 
     Page<Customer> getAllCustomers(int page, int size);
 
+    Slice<Customer> getAllCustomers(int page, int size, boolean includeTotals);
+
     Page<Customer> getAllCustomers();
 
+    Slice<Customer> getCustomersAfter(String afterId, int size);
+
+    void exportCustomers(Consumer<Customer> consumer);
+
     Customer getCustomerById(String id);
 
+    Optional<String> getCustomerETag(String id);
+
     void saveCustomer(Customer customer);
 
+    BatchResult saveCustomers(List<Customer> customers);
+
     void updateCustomer(String id, Customer customer);
 
     void deleteCustomer(String id);
@@ -1,57 +1,167 @@
 package org.sid.customerservice.services;
 
+import jakarta.persistence.EntityManager;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
 import org.sid.customerservice.entities.Customer;
+import org.sid.customerservice.records.BatchResult;
 import org.sid.customerservice.repository.CustomerRepository;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
 @Service
 @Transactional
 @Slf4j
 public class CustomerServiceImpl implements CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final EntityManager entityManager;
+    private final CountCache countCache;
+    private final CustomerCache customerCache;
+
+    // Taille des lots vidés puis détachés du contexte de persistance lors d'un import
+    private static final int BATCH_FLUSH_SIZE = 1000;
+    // Nombre d'emails par requête IN de vérification d'unicité
+    private static final int EMAIL_LOOKUP_CHUNK = 5000;
 
-    public CustomerServiceImpl(CustomerRepository customerRepository) {
+    public CustomerServiceImpl(CustomerRepository customerRepository, EntityManager entityManager,
+                               CountCache countCache, CustomerCache customerCache) {
         this.customerRepository = customerRepository;
+        this.entityManager = entityManager;
+        this.countCache = countCache;
+        this.customerCache = customerCache;
     }
 
     @Override
     public Page<Customer> getAllCustomers(int page, int size) {
+        return (Page<Customer>) getAllCustomers(page, size, true);
+    }
+
+    @Override
+    public Slice<Customer> getAllCustomers(int page, int size, boolean includeTotals) {
         log.info("Fetching customers page {} with size {}", page, size);
         Pageable pageable = PageRequest.of(page, size);
-        return customerRepository.findAll(pageable);
+        Slice<Customer> slice = customerRepository.findAllBy(pageable);
+        if (!includeTotals) {
+            return slice;
+        }
+        // Le COUNT n'est exécuté que si la page ne permet pas de déduire le total, et il est mis en cache
+        return PageableExecutionUtils.getPage(slice.getContent(), pageable,
+                () -> countCache.get("all", customerRepository::count));
     }
 
     @Override
     public Page<Customer> getAllCustomers() {
         log.info("Fetching all customers with default pagination");
-        Pageable pageable = PageRequest.of(0, 10);
-        return customerRepository.findAll(pageable);
+        return getAllCustomers(0, 10);
     }
 
     @Override
+    public Slice<Customer> getCustomersAfter(String afterId, int size) {
+        log.info("Fetching {} customers after id {}", size, afterId);
+        String from = afterId != null ? afterId : "";
+        return customerRepository.findByIdGreaterThanOrderByIdAsc(from, PageRequest.of(0, size));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportCustomers(Consumer<Customer> consumer) {
+        log.info("Exporting all customers");
+        try (Stream<Customer> customers = customerRepository.streamAll()) {
+            customers.forEach(customer -> {
+                consumer.accept(customer);
+                // Détacher chaque entité pour que le contexte de persistance reste de taille constante
+                entityManager.detach(customer);
+            });
+        }
+    }
+
+    // Pas de transaction propre : un hit du cache ne prend pas de connexion
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Customer getCustomerById(String id) {
         log.info("Fetching customer with id: {}", id);
-        return customerRepository.findById(id)
+        return customerCache.get(id, customerRepository::findById)
                 .orElseThrow(() -> new RuntimeException("Customer not found with id: " + id));
     }
 
+    // Revalidation d'un GET conditionnel : la version vient du cache ou d'une projection, sans charger l'entité
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<String> getCustomerETag(String id) {
+        Optional<Long> version = customerCache.cachedVersion(id);
+        if (version.isEmpty()) {
+            version = customerRepository.findVersionById(id);
+        }
+        return version.map(String::valueOf);
+    }
+
     @Override
     public void saveCustomer(Customer customer) {
         log.info("Saving new customer: {}", customer.getName());
-        if (customer.getEmail() != null && !customer.getEmail().isEmpty()) {
-            boolean emailExists = customerRepository.findByEmail(customer.getEmail())
-                    .isPresent();
-            if (emailExists) {
-                throw new RuntimeException("Email already exists: " + customer.getEmail());
+        customer.setVersion(null);
+        customer.normalizeEmail();
+        // L'unicité de l'email est garantie par la contrainte uk_customer_email : un seul INSERT
+        try {
+            customerRepository.saveAndFlush(customer);
+        } catch (DataIntegrityViolationException e) {
+            throw emailConflictOr(e, customer.getEmail());
+        }
+        countCache.invalidateAll();
+    }
+
+    @Override
+    public BatchResult saveCustomers(List<Customer> customers) {
+        log.info("Saving batch of {} customers", customers.size());
+
+        // Validation en une passe ; l'unicité des emails est vérifiée par requêtes IN groupées
+        customers.forEach(Customer::normalizeEmail);
+        Set<String> existingEmails = new HashSet<>();
+        List<String> emails = customers.stream().map(Customer::getEmail).filter(Objects::nonNull).distinct().toList();
+        for (int i = 0; i < emails.size(); i += EMAIL_LOOKUP_CHUNK) {
+            existingEmails.addAll(customerRepository.findExistingEmails(emails.subList(i, Math.min(i + EMAIL_LOOKUP_CHUNK, emails.size()))));
+        }
+        Set<String> batchEmails = new HashSet<>();
+        List<BatchResult.BatchError> errors = new ArrayList<>();
+        List<Customer> valid = new ArrayList<>(customers.size());
+        for (int i = 0; i < customers.size(); i++) {
+            Customer customer = customers.get(i);
+            if (customer.getEmail() != null
+                    && (existingEmails.contains(customer.getEmail()) || !batchEmails.add(customer.getEmail()))) {
+                errors.add(new BatchResult.BatchError(i, "Email already exists: " + customer.getEmail()));
+            } else {
+                customer.setId(null);
+                customer.setVersion(null);
+                valid.add(customer);
             }
         }
-        customerRepository.save(customer);
+
+        // INSERT batchés (hibernate.jdbc.batch_size) ; le contexte est vidé à chaque lot
+        for (int from = 0; from < valid.size(); from += BATCH_FLUSH_SIZE) {
+            customerRepository.saveAll(valid.subList(from, Math.min(from + BATCH_FLUSH_SIZE, valid.size())));
+            entityManager.flush();
+            entityManager.clear();
+        }
+        countCache.invalidateAll();
+
+        return new BatchResult(customers.size(), valid.size(), errors);
     }
 
     @Override
@@ -63,8 +173,14 @@ public class CustomerServiceImpl implements CustomerService {
         // Mettre à jour les champs
         existingCustomer.setName(customer.getName());
         existingCustomer.setEmail(customer.getEmail());
+        existingCustomer.normalizeEmail();
 
-        customerRepository.save(existingCustomer);
+        try {
+            customerRepository.saveAndFlush(existingCustomer);
+        } catch (DataIntegrityViolationException e) {
+            throw emailConflictOr(e, existingCustomer.getEmail());
+        }
+        customerCache.evict(id);
     }
 
     @Override
@@ -75,6 +191,8 @@ public class CustomerServiceImpl implements CustomerService {
         }
 
         customerRepository.deleteById(id);
+        customerCache.evict(id);
+        countCache.invalidateAll();
     }
 
     @Override
@@ -88,4 +206,14 @@ public class CustomerServiceImpl implements CustomerService {
         log.info("Counting total customers");
         return customerRepository.count();
     }
-}
\ No newline at end of file
+
+    // Seule la violation de uk_customer_email signale un doublon ; les autres erreurs d'intégrité sont propagées
+    private static RuntimeException emailConflictOr(DataIntegrityViolationException e, String email) {
+        if (e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains("uk_customer_email")) {
+            return new RuntimeException("Email already exists: " + email, e);
+        }
+        return e;
+    }
+}
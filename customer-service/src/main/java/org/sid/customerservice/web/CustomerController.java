@@ -1,18 +1,30 @@
 package org.sid.customerservice.web;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.sid.customerservice.entities.Customer;
 import org.sid.customerservice.mappers.PagedResponseMapper;
+import org.sid.customerservice.records.BatchResult;
 import org.sid.customerservice.records.PagedResponse;
 import org.sid.customerservice.services.CustomerService;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/customers")
@@ -23,16 +35,33 @@ public class CustomerController {
 
     private final CustomerService customerService;
     private final PagedResponseMapper pagedResponseMapper;
+    private final ObjectMapper objectMapper;
+
+    private static final int EXPORT_FLUSH_EVERY = 500;
 
     @GetMapping
     public ResponseEntity<PagedResponse<Customer>> getAllCustomers(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean includeTotals) {
 
-        log.info("GET /api/customers?page={}&size={}", page, size);
+        log.info("GET /api/customers?page={}&size={}&cursor={}", page, size, cursor);
 
         try {
-            Page<Customer> customersPage = customerService.getAllCustomers(page, size);
+            if (cursor != null) {
+                // Mode keyset : pas de COUNT, recherche par index à partir du dernier id
+                String afterId;
+                try {
+                    afterId = cursor.isEmpty() ? null : pagedResponseMapper.decodeCursor(cursor);
+                } catch (IllegalArgumentException e) {
+                    log.warn("Invalid cursor: {}", cursor);
+                    return ResponseEntity.badRequest().build();
+                }
+                Slice<Customer> slice = customerService.getCustomersAfter(afterId, size);
+                return ResponseEntity.ok(pagedResponseMapper.toCursorResponse(slice, Customer::getId));
+            }
+            Slice<Customer> customersPage = customerService.getAllCustomers(page, size, includeTotals);
             PagedResponse<Customer> response = pagedResponseMapper.toPagedResponse(customersPage);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -55,13 +84,45 @@ public class CustomerController {
         }
     }
 
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportCustomers(HttpServletResponse response) throws IOException {
+        log.info("GET /api/customers/export");
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try (SequenceWriter writer = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .writeValues(response.getOutputStream())) {
+            int[] written = {0};
+            customerService.exportCustomers(customer -> {
+                try {
+                    writer.write(customer);
+                    if (++written[0] % EXPORT_FLUSH_EVERY == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.info("Exported {} customers", written[0]);
+        } catch (UncheckedIOException e) {
+            log.warn("Customer export aborted: {}", e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Customer> getCustomerById(@PathVariable String id) {
+    public ResponseEntity<Customer> getCustomerById(@PathVariable String id, WebRequest request) {
         log.info("GET /api/customers/{}", id);
 
         try {
+            // If-None-Match : la version suffit, le client n'est ni chargé ni sérialisé s'il n'a pas changé
+            if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+                Optional<String> etag = customerService.getCustomerETag(id);
+                if (etag.isPresent() && request.checkNotModified(etag.get())) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+                }
+            }
             Customer customer = customerService.getCustomerById(id);
-            return ResponseEntity.ok(customer);
+            return ResponseEntity.ok().eTag(String.valueOf(customer.getVersion())).body(customer);
         } catch (RuntimeException e) {
             log.warn("Customer not found with id: {}", id);
             return ResponseEntity.notFound().build();
@@ -87,6 +148,22 @@ public class CustomerController {
         }
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResult> createCustomers(@RequestBody List<Customer> customers) {
+        log.info("POST /api/customers/batch - Creating {} customers", customers.size());
+
+        try {
+            BatchResult result = customerService.saveCustomers(customers);
+            return ResponseEntity.status(HttpStatus.CREATED).body(result);
+        } catch (RuntimeException e) {
+            log.warn("Error creating customers batch: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error creating customers batch", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Customer> updateCustomer(
             @PathVariable String id,
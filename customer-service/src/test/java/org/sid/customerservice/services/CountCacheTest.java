@@ -0,0 +1,64 @@
+package org.sid.customerservice.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountCacheTest {
+
+    private final CountCache countCache = new CountCache(Duration.ofMinutes(1), 100);
+    private final AtomicInteger queries = new AtomicInteger();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void countIsCachedUntilInvalidated() {
+        assertEquals(5, countCache.get("all", () -> count(5)));
+        assertEquals(5, countCache.get("all", () -> count(6)));
+        assertEquals(1, queries.get());
+
+        countCache.invalidateAll();
+        assertEquals(6, countCache.get("all", () -> count(6)));
+    }
+
+    @Test
+    void invalidationInsideTransactionWaitsForCommit() {
+        countCache.get("all", () -> count(5));
+        TransactionSynchronizationManager.initSynchronization();
+
+        countCache.invalidateAll();
+        // Avant le commit, l'ancien total reste servi
+        assertEquals(5, countCache.get("all", () -> count(6)));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertEquals(6, countCache.get("all", () -> count(6)));
+    }
+
+    @Test
+    void countStartedBeforeInvalidationIsNotCached() {
+        // Le vidage survient pendant que le COUNT s'exécute
+        assertEquals(5, countCache.get("all", () -> {
+            countCache.invalidateAll();
+            return count(5);
+        }));
+        assertEquals(6, countCache.get("all", () -> count(6)));
+    }
+
+    private long count(long value) {
+        queries.incrementAndGet();
+        return value;
+    }
+}
@@ -0,0 +1,82 @@
+package org.sid.customerservice.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.sid.customerservice.entities.Customer;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerCacheTest {
+
+    private final CustomerCache cache = new CustomerCache(new SimpleMeterRegistry(), true, 100, Duration.ofMinutes(1));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void secondLookupIsServedFromCache() {
+        cache.get("c1", this::load);
+        cache.get("c1", this::load);
+
+        assertEquals(1, loads.get());
+        assertEquals(Optional.of(1L), cache.cachedVersion("c1"));
+    }
+
+    @Test
+    void callersCannotMutateTheCachedValue() {
+        cache.get("c1", this::load).orElseThrow().setName("changed");
+
+        assertEquals("name-c1", cache.get("c1", this::load).orElseThrow().getName());
+    }
+
+    @Test
+    void evictionInsideTransactionWaitsForCommit() {
+        cache.get("c1", this::load);
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.evict("c1");
+        // Avant le commit, une relecture rechargerait l'ancienne ligne : l'entrée est gardée
+        assertTrue(cache.cachedVersion("c1").isPresent());
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCommit();
+        }
+        assertTrue(cache.cachedVersion("c1").isEmpty());
+        cache.get("c1", this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictionOutsideTransactionIsImmediate() {
+        cache.get("c1", this::load);
+
+        cache.evict("c1");
+
+        assertTrue(cache.cachedVersion("c1").isEmpty());
+    }
+
+    @Test
+    void missingCustomerIsNotCached() {
+        assertTrue(cache.get("none", id -> { loads.incrementAndGet(); return Optional.empty(); }).isEmpty());
+        assertTrue(cache.get("none", id -> { loads.incrementAndGet(); return Optional.empty(); }).isEmpty());
+
+        assertEquals(2, loads.get());
+    }
+
+    private Optional<Customer> load(String id) {
+        loads.incrementAndGet();
+        return Optional.of(Customer.builder().id(id).name("name-" + id).email(id + "@test.org").version(1L).build());
+    }
+}
@@ -0,0 +1,88 @@
+package org.sid.customerservice.services;
+
+import org.junit.jupiter.api.Test;
+import org.sid.customerservice.entities.Customer;
+import org.sid.customerservice.records.BatchResult;
+import org.sid.customerservice.repository.CustomerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unicité des emails portée par uk_customer_email : emails vides enregistrés comme absents,
+ * et seul un doublon d'email est signalé comme tel.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:customer-email",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+class CustomerEmailTest {
+
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void blankEmailsAreStoredAsNull() {
+        Customer empty = customer("blank-1", "");
+        Customer spaces = customer("blank-2", "   ");
+        customerService.saveCustomer(empty);
+        customerService.saveCustomer(spaces);
+
+        assertNull(customerRepository.findById(empty.getId()).orElseThrow().getEmail());
+        assertNull(customerRepository.findById(spaces.getId()).orElseThrow().getEmail());
+
+        BatchResult result = customerService.saveCustomers(List.of(customer("blank-3", ""), customer("blank-4", "")));
+        assertEquals(2, result.created());
+        assertTrue(result.errors().isEmpty());
+    }
+
+    @Test
+    void duplicateEmailIsReported() {
+        customerService.saveCustomer(customer("dup-1", "dup@test.org"));
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> customerService.saveCustomer(customer("dup-2", "dup@test.org")));
+        assertEquals("Email already exists: dup@test.org", e.getMessage());
+
+        Customer other = customer("dup-3", "other@test.org");
+        customerService.saveCustomer(other);
+        RuntimeException onUpdate = assertThrows(RuntimeException.class,
+                () -> customerService.updateCustomer(other.getId(), customer("dup-3", "dup@test.org")));
+        assertEquals("Email already exists: dup@test.org", onUpdate.getMessage());
+    }
+
+    @Test
+    void updateToBlankEmailClearsIt() {
+        Customer first = customer("clear-1", "clear-1@test.org");
+        Customer second = customer("clear-2", "clear-2@test.org");
+        customerService.saveCustomer(first);
+        customerService.saveCustomer(second);
+
+        customerService.updateCustomer(first.getId(), customer("clear-1", ""));
+        customerService.updateCustomer(second.getId(), customer("clear-2", ""));
+
+        assertNull(customerRepository.findById(first.getId()).orElseThrow().getEmail());
+        assertNull(customerRepository.findById(second.getId()).orElseThrow().getEmail());
+    }
+
+    @Test
+    void otherIntegrityViolationsAreNotReportedAsDuplicateEmail() {
+        // Nom plus long que la colonne (255) : violation d'intégrité sans rapport avec l'email
+        Customer tooLong = customer("x".repeat(300), "too-long@test.org");
+
+        DataIntegrityViolationException e = assertThrows(DataIntegrityViolationException.class,
+                () -> customerService.saveCustomer(tooLong));
+        assertFalse(e.getMessage().startsWith("Email already exists"));
+    }
+
+    private static Customer customer(String name, String email) {
+        return Customer.builder().name(name).email(email).build();
+    }
+}
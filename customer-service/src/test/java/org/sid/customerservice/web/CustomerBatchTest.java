@@ -0,0 +1,87 @@
+package org.sid.customerservice.web;
+
+import org.junit.jupiter.api.Test;
+import org.sid.customerservice.entities.Customer;
+import org.sid.customerservice.repository.CustomerRepository;
+import org.sid.customerservice.services.CustomerService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Import POST /api/customers/batch : emails en double (en base ou dans le lot) signalés par index.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:customer-batch",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+@AutoConfigureMockMvc
+class CustomerBatchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Test
+    void duplicateEmailsAreReportedByIndex() throws Exception {
+        customerService.saveCustomer(Customer.builder().name("existing").email("existing@test.org").build());
+
+        mockMvc.perform(post("/api/customers/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [
+                                  {"name": "ok", "email": "ok@test.org"},
+                                  {"name": "taken", "email": "existing@test.org"},
+                                  {"name": "twice-1", "email": "twice@test.org"},
+                                  {"name": "twice-2", "email": "twice@test.org"},
+                                  {"name": "no-email-1"},
+                                  {"name": "no-email-2", "email": ""}
+                                ]
+                                """))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.received").value(6))
+                .andExpect(jsonPath("$.created").value(4))
+                .andExpect(jsonPath("$.errors.length()").value(2))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].message").value("Email already exists: existing@test.org"))
+                .andExpect(jsonPath("$.errors[1].index").value(3))
+                .andExpect(jsonPath("$.errors[1].message").value("Email already exists: twice@test.org"));
+
+        assertEquals("twice-1", customerRepository.findByEmail("twice@test.org").orElseThrow().getName());
+        assertTrue(customerRepository.existsByEmail("ok@test.org"));
+    }
+
+    @Test
+    void largeImportIsCreatedAcrossFlushes() throws Exception {
+        // Plus d'un lot vidé du contexte (1000) et plus d'une requête IN d'unicité (5000)
+        List<String> rows = new ArrayList<>();
+        for (int i = 0; i < 5500; i++) {
+            rows.add("{\"name\": \"import-" + i + "\", \"email\": \"import-" + i + "@test.org\"}");
+        }
+        rows.add("{\"name\": \"import-again\", \"email\": \"import-5499@test.org\"}");
+        long before = customerRepository.count();
+
+        mockMvc.perform(post("/api/customers/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + String.join(",", rows) + "]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.received").value(5501))
+                .andExpect(jsonPath("$.created").value(5500))
+                .andExpect(jsonPath("$.errors[0].index").value(5500));
+
+        assertEquals(before + 5500, customerRepository.count());
+    }
+}
@@ -0,0 +1,69 @@
+package org.sid.customerservice.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.sid.customerservice.entities.Customer;
+import org.sid.customerservice.repository.CustomerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:customer-cursor-pagination",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+@AutoConfigureMockMvc
+class CustomerCursorPaginationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void cursorWalksEveryCustomerOnceInIdOrder() throws Exception {
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            customers.add(Customer.builder().name("cursor-" + i).email("cursor-" + i + "@test.org").build());
+        }
+        customerRepository.saveAll(customers);
+
+        List<String> ids = new ArrayList<>();
+        String cursor = "";
+        do {
+            JsonNode page = objectMapper.readTree(mockMvc.perform(get("/api/customers").param("cursor", cursor).param("size", "7"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalItems").doesNotExist())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("content").forEach(customer -> ids.add(customer.get("id").asText()));
+            cursor = page.hasNonNull("nextCursor") ? page.get("nextCursor").asText() : null;
+        } while (cursor != null);
+
+        assertEquals(customerRepository.count(), ids.size());
+        assertEquals(ids.stream().sorted().distinct().toList(), ids);
+    }
+
+    @Test
+    void malformedCursorIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/customers").param("cursor", "%%%"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void invalidPageSizeIsNotReportedAsBadCursor() throws Exception {
+        mockMvc.perform(get("/api/customers").param("cursor", "").param("size", "0"))
+                .andExpect(status().isInternalServerError());
+    }
+}
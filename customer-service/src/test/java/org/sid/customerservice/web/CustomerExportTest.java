@@ -0,0 +1,60 @@
+package org.sid.customerservice.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.sid.customerservice.entities.Customer;
+import org.sid.customerservice.repository.CustomerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:customer-export",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+@AutoConfigureMockMvc
+class CustomerExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportWritesOneJsonCustomerPerLine() throws Exception {
+        List<Customer> customers = new ArrayList<>();
+        // Plus d'un intervalle de flush (500) pour couvrir les écritures intermédiaires
+        for (int i = 0; i < 1200; i++) {
+            customers.add(Customer.builder().name("export-" + i).email("export-" + i + "@test.org").build());
+        }
+        customerRepository.saveAll(customers);
+
+        String body = mockMvc.perform(get("/api/customers/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<Customer> exported = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            exported.add(objectMapper.readValue(line, Customer.class));
+        }
+        assertEquals(customerRepository.count(), exported.size());
+        Set<String> ids = exported.stream().map(Customer::getId).collect(Collectors.toSet());
+        assertEquals(exported.size(), ids.size());
+        assertTrue(exported.stream().anyMatch(c -> "export-7@test.org".equals(c.getEmail())));
+    }
+}
@@ -0,0 +1,15 @@
+package org.sid.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Limite de concurrence adaptative par service : elle démarre à {@code initial-limit} puis suit
+ * la latence observée entre {@code min-limit} et {@code max-limit}.
+ */
+@ConfigurationProperties(prefix = "gateway.load-shedding")
+public record LoadSheddingProperties(@DefaultValue("true") boolean enabled,
+                                     @DefaultValue("20") int initialLimit,
+                                     @DefaultValue("4") int minLimit,
+                                     @DefaultValue("500") int maxLimit) {
+}
@@ -0,0 +1,29 @@
+package org.sid.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Map;
+
+/**
+ * Seaux à jetons du gateway : un par service (débit {@code route-rate}, surchargé par
+ * {@code routes[<service>]}) et un par client et par service. Le client est identifié par
+ * l'en-tête {@code client-header} s'il est configuré, sinon par son adresse IP.
+ * La capacité d'un seau (rafale admise) vaut deux secondes de débit.
+ */
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public record RateLimitProperties(@DefaultValue("true") boolean enabled,
+                                  @DefaultValue("500") double routeRate,
+                                  @DefaultValue("50") double clientRate,
+                                  Map<String, Double> routes,
+                                  String clientHeader,
+                                  @DefaultValue("100000") long maxClients) {
+
+    public RateLimitProperties {
+        routes = routes == null ? Map.of() : Map.copyOf(routes);
+    }
+
+    public double routeRate(String serviceId) {
+        return routes.getOrDefault(serviceId, routeRate);
+    }
+}
@@ -0,0 +1,43 @@
+package org.sid.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Cache de réponses du gateway. {@code routes} associe un préfixe de chemin à la durée de vie
+ * de ses réponses, par exemple {@code gateway.cache.routes[/inventory-service/api/products]=10s} ;
+ * seuls les chemins listés sont mis en cache, et une durée nulle exclut un sous-chemin.
+ * {@code readOnlyPosts} liste les POST de lecture (chemins exacts) qui n'invalident pas le cache.
+ */
+@ConfigurationProperties(prefix = "gateway.cache")
+public record ResponseCacheProperties(@DefaultValue("true") boolean enabled,
+                                      @DefaultValue("64MB") DataSize maxSize,
+                                      @DefaultValue("512KB") DataSize maxEntrySize,
+                                      Map<String, Duration> routes,
+                                      Set<String> readOnlyPosts) {
+
+    public ResponseCacheProperties {
+        routes = routes == null ? Map.of() : Map.copyOf(routes);
+        readOnlyPosts = readOnlyPosts == null ? Set.of() : Set.copyOf(readOnlyPosts);
+    }
+
+    /**
+     * Durée de vie pour ce chemin (préfixe le plus long), ou null si le chemin n'est pas mis en cache.
+     */
+    public Duration ttlFor(String path) {
+        String best = null;
+        for (String prefix : routes.keySet()) {
+            boolean matches = path.equals(prefix) || path.startsWith(prefix.endsWith("/") ? prefix : prefix + "/");
+            if (matches && (best == null || prefix.length() > best.length())) {
+                best = prefix;
+            }
+        }
+        Duration ttl = best == null ? null : routes.get(best);
+        return ttl == null || ttl.isZero() || ttl.isNegative() ? null : ttl;
+    }
+}
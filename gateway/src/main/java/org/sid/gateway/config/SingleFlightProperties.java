@@ -0,0 +1,18 @@
+package org.sid.gateway.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Mise en commun des GET identiques en cours : {@code maxWait} borne l'attente d'une requête
+ * sur la réponse partagée, au-delà elle est transmise au service comme d'habitude.
+ * {@code maxBodySize} borne le corps retenu en mémoire pour être partagé.
+ */
+@ConfigurationProperties(prefix = "gateway.single-flight")
+public record SingleFlightProperties(@DefaultValue("true") boolean enabled,
+                                     @DefaultValue("2s") Duration maxWait,
+                                     @DefaultValue("512KB") DataSize maxBodySize) {
+}
@@ -0,0 +1,96 @@
+package org.sid.gateway.filters;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite de concurrence à la TCP Vegas : la file d'attente côté service est estimée à partir de
+ * l'écart entre la latence lissée et la latence à vide. Peu de file : la limite monte ; une file
+ * qui s'allonge : elle baisse ; une erreur ou un timeout : elle baisse de 10 %.
+ * La latence à vide est le minimum de la latence lissée sur les deux dernières fenêtres de
+ * {@code WINDOW} mesures : une réponse isolée très rapide (404, cache) ne la fige pas, et elle
+ * remonte si le service ralentit durablement.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final int WINDOW = 250;
+    private static final double SMOOTHING = 0.1;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final AtomicInteger inflight = new AtomicInteger();
+    private volatile double limit;
+    // Accès sous le verrou de update : latence lissée (moyenne exponentielle), minimum de la
+    // fenêtre courante et de la précédente
+    private double smoothedRtt;
+    private double windowMin = Double.MAX_VALUE;
+    private double previousWindowMin = Double.MAX_VALUE;
+    private int samples;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inflight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inflight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void onSuccess(long rttNanos) {
+        update(inflight.getAndDecrement(), rttNanos, false);
+    }
+
+    public void onDropped() {
+        update(inflight.getAndDecrement(), 0, true);
+    }
+
+    /**
+     * Requête abandonnée par le client : pas de mesure exploitable.
+     */
+    public void onIgnored() {
+        inflight.decrementAndGet();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInflight() {
+        return inflight.get();
+    }
+
+    private synchronized void update(int inflightAtCompletion, long rttNanos, boolean dropped) {
+        double current = limit;
+        double step = Math.max(1, Math.log10(current));
+        double next = current;
+        if (dropped) {
+            next = current * 0.9;
+        } else if (rttNanos > 0) {
+            double rtt = smoothedRtt == 0 ? rttNanos : smoothedRtt + SMOOTHING * (rttNanos - smoothedRtt);
+            smoothedRtt = rtt;
+            windowMin = Math.min(windowMin, rtt);
+            double noLoadRtt = Math.min(windowMin, previousWindowMin);
+            if (++samples == WINDOW) {
+                previousWindowMin = windowMin;
+                windowMin = Double.MAX_VALUE;
+                samples = 0;
+            }
+            double queue = Math.ceil(current * (1 - noLoadRtt / rtt));
+            if (queue >= 6 * step) {
+                next = current - step;
+            } else if (queue <= 3 * step && inflightAtCompletion * 2 >= current) {
+                // On ne monte que si la limite est réellement utilisée
+                next = current + step;
+            }
+        }
+        limit = Math.max(minLimit, Math.min(maxLimit, next));
+    }
+}
@@ -0,0 +1,42 @@
+package org.sid.gateway.filters;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.cloud.client.discovery.event.InstanceRegisteredEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Services connus de la découverte, en minuscules comme les routes du gateway. Les états par
+ * service (seaux, limiteurs, jauges) ne sont créés que pour eux : un premier segment de chemin
+ * quelconque ne fait pas grossir la mémoire. {@link #contains} ne lit qu'un ensemble en mémoire
+ * (boucle Netty) ; la liste, bloquante à obtenir, est relue au démarrage et à chaque
+ * rafraîchissement du registre (HeartbeatEvent, émis hors de la boucle Netty).
+ */
+@Component
+public class KnownServices {
+
+    private final DiscoveryClient discoveryClient;
+    private volatile Set<String> services = Set.of();
+
+    public KnownServices(DiscoveryClient discoveryClient) {
+        this.discoveryClient = discoveryClient;
+    }
+
+    public boolean contains(String serviceId) {
+        return services.contains(serviceId);
+    }
+
+    @EventListener({ApplicationReadyEvent.class, InstanceRegisteredEvent.class, HeartbeatEvent.class})
+    public void refresh() {
+        // En cas d'échec, la liste précédente est conservée jusqu'au prochain rafraîchissement
+        services = discoveryClient.getServices().stream()
+                .map(id -> id.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toUnmodifiableSet());
+    }
+}
@@ -0,0 +1,97 @@
+package org.sid.gateway.filters;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.sid.gateway.config.LoadSheddingProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Délestage : chaque service a une limite de requêtes simultanées qui s'adapte à sa latence
+ * ({@link AdaptiveConcurrencyLimit}). Au-delà, le gateway répond 503 tout de suite au lieu de
+ * laisser la file grossir dans le pool Tomcat du service. Seuls les services connus de la
+ * découverte ont un limiteur (et ses jauges) ; les autres chemins ne sont pas routés.
+ */
+@Component
+public class LoadSheddingFilter implements GlobalFilter, Ordered {
+
+    private final LoadSheddingProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final KnownServices knownServices;
+    private final Map<String, AdaptiveConcurrencyLimit> limiters = new ConcurrentHashMap<>();
+
+    public LoadSheddingFilter(LoadSheddingProperties properties, MeterRegistry meterRegistry, KnownServices knownServices) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.knownServices = knownServices;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.enabled()) {
+            return chain.filter(exchange);
+        }
+        String serviceId = RateLimitFilter.serviceId(exchange.getRequest().getPath().pathWithinApplication().value());
+        AdaptiveConcurrencyLimit existing = limiters.get(serviceId);
+        if (existing == null && !knownServices.contains(serviceId)) {
+            return chain.filter(exchange);
+        }
+        AdaptiveConcurrencyLimit limiter = existing != null ? existing : limiters.computeIfAbsent(serviceId, this::newLimiter);
+        if (!limiter.tryAcquire()) {
+            return reject(exchange.getResponse(), serviceId);
+        }
+        long start = System.nanoTime();
+        // La chaîne se termine à la réception des en-têtes du service : la latence mesurée est le temps de première réponse
+        return chain.filter(exchange).doFinally(signal -> {
+            HttpStatusCode status = exchange.getResponse().getStatusCode();
+            if (signal == SignalType.CANCEL) {
+                limiter.onIgnored();
+            } else if (signal == SignalType.ON_ERROR || (status != null && status.is5xxServerError())) {
+                limiter.onDropped();
+            } else {
+                limiter.onSuccess(System.nanoTime() - start);
+            }
+        });
+    }
+
+    @Override
+    public int getOrder() {
+        // Après le cache et le single-flight : seules les requêtes réellement transmises au service comptent
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER + 1;
+    }
+
+    public AdaptiveConcurrencyLimit limiter(String serviceId) {
+        return limiters.get(serviceId);
+    }
+
+    private AdaptiveConcurrencyLimit newLimiter(String serviceId) {
+        AdaptiveConcurrencyLimit limiter = new AdaptiveConcurrencyLimit(
+                properties.initialLimit(), properties.minLimit(), properties.maxLimit());
+        Gauge.builder("gateway.concurrency.limit", limiter, AdaptiveConcurrencyLimit::getLimit)
+                .tag("route", serviceId).register(meterRegistry);
+        Gauge.builder("gateway.concurrency.inflight", limiter, AdaptiveConcurrencyLimit::getInflight)
+                .tag("route", serviceId).register(meterRegistry);
+        return limiter;
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response, String serviceId) {
+        meterRegistry.counter("gateway.admission.rejected", "reason", "load-shedding", "scope", "route", "route", serviceId)
+                .increment();
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+        return response.setComplete();
+    }
+}
@@ -0,0 +1,109 @@
+package org.sid.gateway.filters;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.sid.gateway.config.RateLimitProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Limitation de débit en mémoire, sans Redis : chaque requête consomme un jeton du seau du client
+ * pour son service puis un jeton du seau du service ; sinon réponse 429 avec Retry-After.
+ * Un client déjà au-delà de son débit ne consomme donc pas la part des autres. Les chemins qui ne
+ * visent pas un service connu de la découverte partagent un seul seau.
+ */
+@Component
+public class RateLimitFilter implements GlobalFilter, Ordered {
+
+    static final String UNKNOWN_SERVICE = "unknown";
+
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final KnownServices knownServices;
+    private final Map<String, TokenBucket> routeBuckets = new ConcurrentHashMap<>();
+    // Seaux des clients inactifs évincés : la mémoire reste bornée quel que soit le nombre de clients
+    private final Cache<String, TokenBucket> clientBuckets;
+
+    public RateLimitFilter(RateLimitProperties properties, MeterRegistry meterRegistry, KnownServices knownServices) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.knownServices = knownServices;
+        this.clientBuckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxClients())
+                .expireAfterAccess(Duration.ofMinutes(5))
+                .build();
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.enabled()) {
+            return chain.filter(exchange);
+        }
+        String serviceId = serviceId(exchange.getRequest().getPath().pathWithinApplication().value());
+        if (!routeBuckets.containsKey(serviceId) && !knownServices.contains(serviceId)) {
+            serviceId = UNKNOWN_SERVICE;
+        }
+        TokenBucket client = clientBuckets.get(serviceId + "|" + clientId(exchange.getRequest()),
+                key -> new TokenBucket(properties.clientRate(), 2 * properties.clientRate()));
+        if (!client.tryAcquire()) {
+            return reject(exchange.getResponse(), serviceId, "client", client);
+        }
+        TokenBucket route = routeBuckets.computeIfAbsent(serviceId,
+                id -> new TokenBucket(properties.routeRate(id), 2 * properties.routeRate(id)));
+        if (!route.tryAcquire()) {
+            // Requête refusée : le jeton du client lui est rendu
+            client.refund();
+            return reject(exchange.getResponse(), serviceId, "route", route);
+        }
+        return chain.filter(exchange);
+    }
+
+    @Override
+    public int getOrder() {
+        // Avant le cache et le single-flight : toute requête consomme un jeton
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 10;
+    }
+
+    private Mono<Void> reject(ServerHttpResponse response, String serviceId, String scope, TokenBucket bucket) {
+        meterRegistry.counter("gateway.admission.rejected", "reason", "rate-limit", "scope", scope, "route", serviceId)
+                .increment();
+        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(bucket.secondsUntilNextToken()));
+        return response.setComplete();
+    }
+
+    private String clientId(ServerHttpRequest request) {
+        if (properties.clientHeader() != null && !properties.clientHeader().isBlank()) {
+            String value = request.getHeaders().getFirst(properties.clientHeader());
+            if (value != null) {
+                int comma = value.indexOf(',');
+                return (comma < 0 ? value : value.substring(0, comma)).trim();
+            }
+        }
+        InetSocketAddress address = request.getRemoteAddress();
+        return address == null ? "unknown" : address.getHostString();
+    }
+
+    /**
+     * Identifiant du service visé : premier segment du chemin, les routes étant découvertes par service.
+     */
+    static String serviceId(String path) {
+        int end = path.indexOf('/', 1);
+        return end < 0 ? path.substring(1) : path.substring(1, end);
+    }
+}
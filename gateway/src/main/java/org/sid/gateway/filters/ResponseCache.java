@@ -0,0 +1,64 @@
+package org.sid.gateway.filters;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.sid.gateway.config.ResponseCacheProperties;
+import org.sid.gateway.records.CachedResponse;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stockage en mémoire des réponses, borné en octets ; chaque entrée expire selon le TTL de sa route.
+ * Les clés commencent par le chemin de la requête, ce qui permet d'invalider par préfixe.
+ */
+@Component
+public class ResponseCache {
+
+    private final Cache<String, CachedResponse> responses;
+
+    public ResponseCache(ResponseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.responses = CaffeineCacheMetrics.monitor(meterRegistry,
+                Caffeine.newBuilder()
+                        .maximumWeight(properties.maxSize().toBytes())
+                        .weigher((String key, CachedResponse response) -> key.length() + response.body().length)
+                        .expireAfter(new Expiry<String, CachedResponse>() {
+                            @Override
+                            public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                                return response.ttl().toNanos();
+                            }
+
+                            @Override
+                            public long expireAfterUpdate(String key, CachedResponse response, long currentTime,
+                                                          long currentDuration) {
+                                return response.ttl().toNanos();
+                            }
+
+                            @Override
+                            public long expireAfterRead(String key, CachedResponse response, long currentTime,
+                                                        long currentDuration) {
+                                return currentDuration;
+                            }
+                        })
+                        .recordStats()
+                        .<String, CachedResponse>build(),
+                "gateway.responses");
+    }
+
+    public CachedResponse get(String key) {
+        return responses.getIfPresent(key);
+    }
+
+    public void put(String key, CachedResponse response) {
+        responses.put(key, response);
+    }
+
+    public void invalidatePrefix(String pathPrefix) {
+        responses.asMap().keySet().removeIf(key -> key.startsWith(pathPrefix));
+    }
+
+    public long size() {
+        return responses.estimatedSize();
+    }
+}
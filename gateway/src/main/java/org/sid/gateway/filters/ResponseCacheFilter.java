@@ -0,0 +1,233 @@
+package org.sid.gateway.filters;
+
+import org.reactivestreams.Publisher;
+import org.sid.gateway.config.ResponseCacheProperties;
+import org.sid.gateway.records.CachedResponse;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Met en cache au niveau du gateway les réponses 200 des GET idempotents sur les routes configurées,
+ * avec ETag et réponse 304 sur {@code If-None-Match}. Les requêtes authentifiées (Authorization,
+ * Cookie) et les réponses en flux (NDJSON, SSE) contournent le cache ; une écriture via le gateway
+ * invalide les réponses du même service. Un corps n'est retenu en mémoire que jusqu'à
+ * {@code max-entry-size} : au-delà, il est transmis au fil de l'eau sans être mis en cache.
+ */
+@Component
+public class ResponseCacheFilter implements GlobalFilter, Ordered {
+
+    static final String CACHE_STATUS = "X-Cache";
+    private static final Set<HttpMethod> MUTATING = Set.of(HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+    private static final List<MediaType> STREAMING = List.of(MediaType.APPLICATION_NDJSON, MediaType.TEXT_EVENT_STREAM);
+    // En-têtes propres à une connexion, jamais rejoués depuis le cache
+    private static final List<String> NOT_STORED = List.of(HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION,
+            HttpHeaders.CONTENT_LENGTH, HttpHeaders.DATE, CACHE_STATUS);
+
+    private final ResponseCacheProperties properties;
+    private final ResponseCache responseCache;
+
+    public ResponseCacheFilter(ResponseCacheProperties properties, ResponseCache responseCache) {
+        this.properties = properties;
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (!properties.enabled()) {
+            return chain.filter(exchange);
+        }
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().pathWithinApplication().value();
+        if (MUTATING.contains(request.getMethod())
+                && !(request.getMethod() == HttpMethod.POST && properties.readOnlyPosts().contains(path))) {
+            return chain.filter(exchange).doFinally(signal -> responseCache.invalidatePrefix(servicePrefix(path)));
+        }
+        Duration ttl = properties.ttlFor(path);
+        if (request.getMethod() != HttpMethod.GET || ttl == null || bypass(request.getHeaders())) {
+            return chain.filter(exchange);
+        }
+
+        String key = key(request, path);
+        List<String> ifNoneMatch = request.getHeaders().getIfNoneMatch();
+        CachedResponse cached = noCache(request.getHeaders()) ? null : responseCache.get(key);
+        if (cached != null) {
+            return writeCached(exchange.getResponse(), cached, ifNoneMatch);
+        }
+        // Le service doit renvoyer un corps complet pour remplir le cache ; le 304 est décidé ici
+        ServerHttpRequest upstream = request.mutate()
+                .headers(h -> {
+                    h.remove(HttpHeaders.IF_NONE_MATCH);
+                    h.remove(HttpHeaders.IF_MODIFIED_SINCE);
+                })
+                .build();
+        return chain.filter(exchange.mutate()
+                .request(upstream)
+                .response(new CachingResponse(exchange.getResponse(), key, ttl, ifNoneMatch))
+                .build());
+    }
+
+    @Override
+    public int getOrder() {
+        // Le décorateur doit être en place avant que NettyWriteResponseFilter n'écrive le corps ;
+        // le cache passe avant la mise en commun (SingleFlightFilter) : un hit n'attend personne
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+    }
+
+    private Mono<Void> writeCached(ServerHttpResponse response, CachedResponse cached, List<String> ifNoneMatch) {
+        response.getHeaders().putAll(cached.headers());
+        response.getHeaders().set(CACHE_STATUS, "HIT");
+        response.getHeaders().set(HttpHeaders.AGE, String.valueOf(cached.ageSeconds()));
+        if (matches(ifNoneMatch, cached.etag())) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return response.setComplete();
+        }
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentLength(cached.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    private class CachingResponse extends ServerHttpResponseDecorator {
+
+        private final String key;
+        private final Duration ttl;
+        private final List<String> ifNoneMatch;
+
+        CachingResponse(ServerHttpResponse delegate, String key, Duration ttl, List<String> ifNoneMatch) {
+            super(delegate);
+            this.key = key;
+            this.ttl = ttl;
+            this.ifNoneMatch = ifNoneMatch;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            if (!storable()) {
+                getHeaders().set(CACHE_STATUS, "BYPASS");
+                return super.writeWith(body);
+            }
+            // Corps de taille inconnue (chunked) : les tampons sont retenus jusqu'à max-entry-size ;
+            // le premier groupe est le corps entier s'il tient dans la limite, sinon ce qui a été lu
+            long limit = properties.maxEntrySize().toBytes();
+            AtomicLong read = new AtomicLong();
+            return Flux.from(body)
+                    .bufferUntil(buffer -> read.addAndGet(buffer.readableByteCount()) > limit)
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .switchOnFirst((first, groups) -> {
+                        if (!first.hasValue()) {
+                            return first.isOnError() ? groups.then() : store(new byte[0]);
+                        }
+                        if (read.get() <= limit) {
+                            return store(bytes(first.get()));
+                        }
+                        getHeaders().set(CACHE_STATUS, "BYPASS");
+                        return getDelegate().writeWith(groups.concatMapIterable(Function.identity()));
+                    })
+                    .then();
+        }
+
+        private byte[] bytes(List<? extends DataBuffer> buffers) {
+            DataBuffer joined = bufferFactory().join(new ArrayList<>(buffers));
+            byte[] bytes = new byte[joined.readableByteCount()];
+            joined.read(bytes);
+            DataBufferUtils.release(joined);
+            return bytes;
+        }
+
+        private Mono<Void> store(byte[] bytes) {
+            HttpHeaders headers = getHeaders();
+            String etag = headers.getETag() != null ? headers.getETag() : "\"" + DigestUtils.md5DigestAsHex(bytes) + "\"";
+            headers.setETag(etag);
+            headers.set(CACHE_STATUS, "MISS");
+            HttpHeaders stored = new HttpHeaders();
+            stored.addAll(headers);
+            NOT_STORED.forEach(stored::remove);
+            responseCache.put(key, new CachedResponse(HttpHeaders.readOnlyHttpHeaders(stored), bytes, etag,
+                    System.currentTimeMillis(), ttl));
+            if (matches(ifNoneMatch, etag)) {
+                setStatusCode(HttpStatus.NOT_MODIFIED);
+                headers.remove(HttpHeaders.CONTENT_LENGTH);
+                return getDelegate().setComplete();
+            }
+            headers.setContentLength(bytes.length);
+            return getDelegate().writeWith(Mono.just(bufferFactory().wrap(bytes)));
+        }
+
+        private boolean storable() {
+            HttpHeaders headers = getHeaders();
+            String cacheControl = headers.getCacheControl();
+            long length = headers.getContentLength();
+            MediaType contentType = headers.getContentType();
+            return HttpStatus.OK.equals(getStatusCode())
+                    && (contentType == null || STREAMING.stream().noneMatch(contentType::isCompatibleWith))
+                    && !headers.containsKey(HttpHeaders.SET_COOKIE)
+                    && (cacheControl == null || !(cacheControl.contains("no-store") || cacheControl.contains("private")))
+                    && !"*".equals(headers.getFirst(HttpHeaders.VARY))
+                    && length <= properties.maxEntrySize().toBytes();
+        }
+    }
+
+    private static boolean bypass(HttpHeaders headers) {
+        return headers.containsKey(HttpHeaders.AUTHORIZATION)
+                || headers.containsKey(HttpHeaders.COOKIE)
+                || String.valueOf(headers.getCacheControl()).contains("no-store");
+    }
+
+    private static boolean noCache(HttpHeaders headers) {
+        return String.valueOf(headers.getCacheControl()).contains(CacheControl.noCache().getHeaderValue());
+    }
+
+    private static boolean matches(List<String> ifNoneMatch, String etag) {
+        String strong = etag.startsWith("W/") ? etag.substring(2) : etag;
+        for (String candidate : ifNoneMatch) {
+            if ("*".equals(candidate) || strong.equals(candidate.startsWith("W/") ? candidate.substring(2) : candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * La réponse varie selon Accept, Accept-Encoding et Origin (CORS) : ils font partie de la clé.
+     */
+    private static String key(ServerHttpRequest request, String path) {
+        HttpHeaders headers = request.getHeaders();
+        String query = request.getURI().getRawQuery();
+        return path + (query == null ? "" : "?" + query)
+                + "|" + headers.getFirst(HttpHeaders.ACCEPT)
+                + "|" + headers.getFirst(HttpHeaders.ACCEPT_ENCODING)
+                + "|" + headers.getOrigin();
+    }
+
+    /**
+     * Préfixe du service visé par le chemin ({@code /inventory-service/}) : les routes du gateway
+     * sont découvertes par identifiant de service.
+     */
+    private static String servicePrefix(String path) {
+        int end = path.indexOf('/', 1);
+        return end < 0 ? path : path.substring(0, end + 1);
+    }
+}
@@ -0,0 +1,192 @@
+package org.sid.gateway.filters;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.sid.gateway.config.SingleFlightProperties;
+import org.sid.gateway.records.SharedResponse;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Single-flight : parmi des GET identiques simultanés, seul le premier est transmis au service ;
+ * les suivants attendent sa réponse (au plus {@code max-wait}) et en reçoivent une copie.
+ * Les requêtes authentifiées et les réponses en flux (NDJSON, SSE) ne sont jamais partagées, ni
+ * les corps au-delà de {@code max-body-size}, transmis au fil de l'eau sans être retenus en mémoire.
+ */
+@Component
+public class SingleFlightFilter implements GlobalFilter, Ordered {
+
+    private static final List<MediaType> STREAMING = List.of(MediaType.APPLICATION_NDJSON, MediaType.TEXT_EVENT_STREAM);
+    private static final List<String> NOT_SHARED = List.of(HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION,
+            HttpHeaders.CONTENT_LENGTH, HttpHeaders.DATE);
+
+    private final SingleFlightProperties properties;
+    private final Map<String, Sinks.One<SharedResponse>> inflight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter followers;
+    private final Counter fallbacks;
+
+    public SingleFlightFilter(SingleFlightProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.leaders = meterRegistry.counter("gateway.singleflight.requests", "role", "leader");
+        this.followers = meterRegistry.counter("gateway.singleflight.requests", "role", "follower");
+        this.fallbacks = meterRegistry.counter("gateway.singleflight.requests", "role", "fallback");
+        Gauge.builder("gateway.singleflight.inflight", inflight, Map::size).register(meterRegistry);
+        // Part des requêtes éligibles servies par une réponse partagée
+        Gauge.builder("gateway.singleflight.dedup.ratio", this, f -> {
+            double total = f.leaders.count() + f.followers.count() + f.fallbacks.count();
+            return total == 0 ? 0 : f.followers.count() / total;
+        }).register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (!properties.enabled() || request.getMethod() != HttpMethod.GET
+                || request.getHeaders().containsKey(HttpHeaders.AUTHORIZATION)
+                || request.getHeaders().containsKey(HttpHeaders.COOKIE)) {
+            return chain.filter(exchange);
+        }
+
+        String key = key(request);
+        Sinks.One<SharedResponse> sink = Sinks.one();
+        Sinks.One<SharedResponse> existing = inflight.putIfAbsent(key, sink);
+        if (existing == null) {
+            leaders.increment();
+            return chain.filter(exchange.mutate().response(new SharingResponse(exchange.getResponse(), sink,
+                            properties.maxBodySize().toBytes())).build())
+                    // Sans réponse partageable (erreur, flux), les suivants repartent vers le service
+                    .doFinally(signal -> {
+                        inflight.remove(key, sink);
+                        sink.tryEmitEmpty();
+                    });
+        }
+
+        return existing.asMono()
+                .timeout(properties.maxWait())
+                .map(Optional::of)
+                .onErrorResume(TimeoutException.class, e -> Mono.just(Optional.empty()))
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(shared -> {
+                    if (shared.isEmpty()) {
+                        fallbacks.increment();
+                        return chain.filter(exchange);
+                    }
+                    followers.increment();
+                    return write(exchange.getResponse(), shared.get());
+                });
+    }
+
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    public int inflightCount() {
+        return inflight.size();
+    }
+
+    private static Mono<Void> write(ServerHttpResponse response, SharedResponse shared) {
+        response.setStatusCode(shared.status());
+        response.getHeaders().putAll(shared.headers());
+        response.getHeaders().setContentLength(shared.body().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(shared.body())));
+    }
+
+    private static class SharingResponse extends ServerHttpResponseDecorator {
+
+        private final Sinks.One<SharedResponse> sink;
+        private final long limit;
+
+        SharingResponse(ServerHttpResponse delegate, Sinks.One<SharedResponse> sink, long limit) {
+            super(delegate);
+            this.sink = sink;
+            this.limit = limit;
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            MediaType contentType = getHeaders().getContentType();
+            if (getHeaders().containsKey(HttpHeaders.SET_COOKIE)
+                    || (contentType != null && STREAMING.stream().anyMatch(contentType::isCompatibleWith))
+                    || getHeaders().getContentLength() > limit) {
+                sink.tryEmitEmpty();
+                return super.writeWith(body);
+            }
+            // Corps de taille inconnue (chunked) : les tampons sont retenus jusqu'à max-body-size ;
+            // le premier groupe est le corps entier s'il tient dans la limite, sinon ce qui a été lu
+            AtomicLong read = new AtomicLong();
+            return Flux.from(body)
+                    .bufferUntil(buffer -> read.addAndGet(buffer.readableByteCount()) > limit)
+                    .doOnDiscard(DataBuffer.class, DataBufferUtils::release)
+                    .switchOnFirst((first, groups) -> {
+                        if (!first.hasValue()) {
+                            return first.isOnError() ? groups.then() : share(new byte[0]);
+                        }
+                        if (read.get() <= limit) {
+                            return share(bytes(first.get()));
+                        }
+                        // Trop gros pour être partagé : les requêtes en attente repartent vers le service
+                        sink.tryEmitEmpty();
+                        return getDelegate().writeWith(groups.concatMapIterable(Function.identity()));
+                    })
+                    .then();
+        }
+
+        private byte[] bytes(List<? extends DataBuffer> buffers) {
+            DataBuffer joined = bufferFactory().join(new ArrayList<>(buffers));
+            byte[] bytes = new byte[joined.readableByteCount()];
+            joined.read(bytes);
+            DataBufferUtils.release(joined);
+            return bytes;
+        }
+
+        private Mono<Void> share(byte[] bytes) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.addAll(getHeaders());
+            NOT_SHARED.forEach(headers::remove);
+            sink.tryEmitValue(new SharedResponse(getStatusCode(), HttpHeaders.readOnlyHttpHeaders(headers), bytes));
+            return getDelegate().writeWith(Mono.just(bufferFactory().wrap(bytes)));
+        }
+    }
+
+    /**
+     * Deux requêtes sont identiques si elles ont même chemin, même requête et mêmes en-têtes
+     * qui font varier la réponse.
+     */
+    private static String key(ServerHttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        String query = request.getURI().getRawQuery();
+        return request.getPath().pathWithinApplication().value() + (query == null ? "" : "?" + query)
+                + "|" + headers.getFirst(HttpHeaders.ACCEPT)
+                + "|" + headers.getFirst(HttpHeaders.ACCEPT_ENCODING)
+                + "|" + headers.getOrigin()
+                + "|" + headers.getFirst(HttpHeaders.IF_NONE_MATCH);
+    }
+}
@@ -0,0 +1,49 @@
+package org.sid.gateway.filters;
+
+/**
+ * Seau à jetons : {@code rate} jetons par seconde, au plus {@code capacity} accumulés.
+ */
+public class TokenBucket {
+
+    private final double rate;
+    private final double capacity;
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(double rate, double capacity) {
+        this.rate = rate;
+        this.capacity = capacity;
+        this.tokens = capacity;
+        this.refilledAt = System.nanoTime();
+    }
+
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    /**
+     * Rend un jeton pris par {@link #tryAcquire()} pour une requête finalement refusée.
+     */
+    public synchronized void refund() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+
+    /**
+     * Délai avant le prochain jeton, en secondes (arrondi au supérieur, au moins 1).
+     */
+    public synchronized long secondsUntilNextToken() {
+        refill();
+        return Math.max(1, (long) Math.ceil((1 - tokens) / rate));
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * rate / 1_000_000_000.0);
+        refilledAt = now;
+    }
+}
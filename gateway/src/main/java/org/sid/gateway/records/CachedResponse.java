@@ -0,0 +1,12 @@
+package org.sid.gateway.records;
+
+import org.springframework.http.HttpHeaders;
+
+import java.time.Duration;
+
+public record CachedResponse(HttpHeaders headers, byte[] body, String etag, long storedAt, Duration ttl) {
+
+    public long ageSeconds() {
+        return (System.currentTimeMillis() - storedAt) / 1000;
+    }
+}
@@ -0,0 +1,7 @@
+package org.sid.gateway.records;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+
+public record SharedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body) {
+}
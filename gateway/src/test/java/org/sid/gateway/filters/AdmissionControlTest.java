@@ -0,0 +1,208 @@
+package org.sid.gateway.filters;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.sid.gateway.config.LoadSheddingProperties;
+import org.sid.gateway.config.RateLimitProperties;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdmissionControlTest {
+
+    private static final String PRODUCTS = "/inventory-service/api/products";
+
+    private final GatewayFilterChain upstream = exchange -> {
+        exchange.getResponse().setStatusCode(HttpStatus.OK);
+        return Mono.empty();
+    };
+
+    @Test
+    void clientOverItsRateGets429WithRetryAfter() {
+        RateLimitFilter filter = rateLimit(new RateLimitProperties(true, 1000, 1, Map.of(), "X-Client", 100));
+
+        // Capacité du seau client : deux secondes de débit, soit 2 requêtes
+        assertEquals(HttpStatus.OK, call(filter, "alice").getStatusCode());
+        assertEquals(HttpStatus.OK, call(filter, "alice").getStatusCode());
+        MockServerWebExchange rejected = exchange("alice");
+        filter.filter(rejected, upstream).block();
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+        assertEquals("1", rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(HttpStatus.OK, call(filter, "bob").getStatusCode());
+    }
+
+    @Test
+    void routeRateIsSharedByAllClients() {
+        RateLimitFilter filter = rateLimit(new RateLimitProperties(true, 1000, 1000,
+                Map.of("inventory-service", 1.0), "X-Client", 100));
+
+        call(filter, "alice");
+        call(filter, "bob");
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, call(filter, "carol").getStatusCode());
+    }
+
+    @Test
+    void concurrencyLimitShrinksWhenLatencyClimbs() {
+        AdaptiveConcurrencyLimit limiter = new AdaptiveConcurrencyLimit(20, 4, 100);
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        assertFalse(limiter.tryAcquire());
+
+        // Latence à vide de 10 ms, puis 50 ms : file estimée de 16 requêtes
+        limiter.onSuccess(10_000_000);
+        for (int i = 0; i < 10; i++) {
+            limiter.onSuccess(50_000_000);
+        }
+        assertTrue(limiter.getLimit() < 20, "limit: " + limiter.getLimit());
+        assertEquals(9, limiter.getInflight());
+    }
+
+    @Test
+    void concurrencyLimitGrowsWhileLatencyStaysFlat() {
+        AdaptiveConcurrencyLimit limiter = new AdaptiveConcurrencyLimit(10, 4, 100);
+        for (int round = 0; round < 5; round++) {
+            while (limiter.tryAcquire()) {
+                // remplir jusqu'à la limite courante
+            }
+            for (int i = limiter.getInflight(); i > 0; i--) {
+                limiter.onSuccess(10_000_000);
+            }
+        }
+        assertTrue(limiter.getLimit() > 10, "limit: " + limiter.getLimit());
+    }
+
+    @Test
+    void concurrencyLimitHoldsWithMixedFastAndSlowResponses() {
+        AdaptiveConcurrencyLimit limiter = new AdaptiveConcurrencyLimit(20, 4, 100);
+        // Une réponse sur cinq très rapide (404, cache), les autres à 50 ms, sans file qui s'allonge
+        long completed = 0;
+        for (int round = 0; round < 200; round++) {
+            while (limiter.tryAcquire()) {
+                // remplir jusqu'à la limite courante
+            }
+            for (int i = limiter.getInflight(); i > 0; i--) {
+                limiter.onSuccess(completed++ % 5 == 0 ? 1_000_000 : 50_000_000);
+            }
+        }
+        assertTrue(limiter.getLimit() >= 20, "limit: " + limiter.getLimit());
+    }
+
+    @Test
+    void rejectedClientDoesNotConsumeTheRouteRate() {
+        RateLimitFilter filter = rateLimit(new RateLimitProperties(true, 1000, 1,
+                Map.of("inventory-service", 2.0), "X-Client", 100));
+
+        // Route : 4 jetons ; alice en prend 2 puis est refusée par son propre seau
+        for (int i = 0; i < 10; i++) {
+            call(filter, "alice");
+        }
+
+        assertEquals(HttpStatus.OK, call(filter, "bob").getStatusCode());
+        assertEquals(HttpStatus.OK, call(filter, "bob").getStatusCode());
+    }
+
+    @Test
+    void clientTokenIsRefundedWhenTheRouteRejects() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RateLimitFilter filter = new RateLimitFilter(new RateLimitProperties(true, 1000, 1,
+                Map.of("inventory-service", 1.0), "X-Client", 100), meterRegistry, knownServices("inventory-service"));
+
+        call(filter, "alice");
+        call(filter, "bob");
+        // Route épuisée : sans remboursement, le seau de carol (2 jetons) serait vide au troisième refus
+        for (int i = 0; i < 3; i++) {
+            assertEquals(HttpStatus.TOO_MANY_REQUESTS, call(filter, "carol").getStatusCode());
+        }
+
+        assertEquals(3, meterRegistry.counter("gateway.admission.rejected",
+                "reason", "rate-limit", "scope", "route", "route", "inventory-service").count());
+        assertNull(meterRegistry.find("gateway.admission.rejected").tag("scope", "client").counter());
+    }
+
+    @Test
+    void knownServicesAreReadFromMemoryAndRefreshedOnRegistryEvents() {
+        DiscoveryClient discoveryClient = mock(DiscoveryClient.class);
+        when(discoveryClient.getServices()).thenReturn(List.of("INVENTORY-SERVICE"));
+        KnownServices knownServices = new KnownServices(discoveryClient);
+        knownServices.refresh();
+
+        for (int i = 0; i < 100; i++) {
+            assertFalse(knownServices.contains("random-" + i));
+        }
+        assertTrue(knownServices.contains("inventory-service"));
+        // Pas d'appel bloquant à la découverte par requête
+        verify(discoveryClient, times(1)).getServices();
+
+        when(discoveryClient.getServices()).thenReturn(List.of("INVENTORY-SERVICE", "CUSTOMER-SERVICE"));
+        knownServices.refresh();
+        assertTrue(knownServices.contains("customer-service"));
+    }
+
+    @Test
+    void unknownServicesShareOneBucketAndGetNoLimiter() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        RateLimitFilter rateLimit = new RateLimitFilter(new RateLimitProperties(true, 1000, 1000,
+                Map.of(RateLimitFilter.UNKNOWN_SERVICE, 1.0), "X-Client", 100), meterRegistry, knownServices("inventory-service"));
+        LoadSheddingFilter shedding = new LoadSheddingFilter(new LoadSheddingProperties(true, 20, 4, 100), meterRegistry,
+                knownServices("inventory-service"));
+
+        for (int i = 0; i < 50; i++) {
+            MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/random-" + i + "/x"));
+            shedding.filter(exchange, upstream).block();
+        }
+        shedding.filter(exchange("alice"), upstream).block();
+
+        assertNull(shedding.limiter("random-0"));
+        assertNotNull(shedding.limiter("inventory-service"));
+        assertEquals(2, meterRegistry.find("gateway.concurrency.limit").gauges().size()
+                + meterRegistry.find("gateway.concurrency.inflight").gauges().size());
+
+        // Seau commun aux chemins inconnus : 2 jetons en tout
+        assertEquals(HttpStatus.OK, call(rateLimit, "/random-1/x").getStatusCode());
+        assertEquals(HttpStatus.OK, call(rateLimit, "/random-2/x").getStatusCode());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, call(rateLimit, "/random-3/x").getStatusCode());
+        assertEquals(HttpStatus.OK, call(rateLimit, "alice").getStatusCode());
+    }
+
+    static KnownServices knownServices(String... serviceIds) {
+        DiscoveryClient discoveryClient = mock(DiscoveryClient.class);
+        when(discoveryClient.getServices()).thenReturn(List.of(serviceIds));
+        KnownServices knownServices = new KnownServices(discoveryClient);
+        knownServices.refresh();
+        return knownServices;
+    }
+
+    private RateLimitFilter rateLimit(RateLimitProperties properties) {
+        return new RateLimitFilter(properties, new SimpleMeterRegistry(), knownServices("inventory-service"));
+    }
+
+    // Un argument commençant par "/" est un chemin, sinon l'identifiant d'un client sur le catalogue
+    private MockServerHttpResponse call(RateLimitFilter filter, String clientOrPath) {
+        MockServerWebExchange exchange = clientOrPath.startsWith("/")
+                ? MockServerWebExchange.from(MockServerHttpRequest.get(clientOrPath).header("X-Client", "anonymous"))
+                : exchange(clientOrPath);
+        filter.filter(exchange, upstream).block();
+        return exchange.getResponse();
+    }
+
+    private static MockServerWebExchange exchange(String client) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(PRODUCTS).header("X-Client", client));
+    }
+}
@@ -0,0 +1,103 @@
+package org.sid.gateway.filters;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.sid.gateway.config.LoadSheddingProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Goodput (réponses 200 reçues avant l'échéance du client) d'un service simulé : pool de
+ * WORKERS threads, SERVICE_TIME par requête, file illimitée comme un pool Tomcat saturé.
+ * Le service continue de traiter les requêtes dont le client a abandonné.
+ * mvn test -Dbenchmark=true -Dtest=LoadSheddingLoadTest
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LoadSheddingLoadTest {
+
+    private static final int WORKERS = 4;
+    private static final Duration SERVICE_TIME = Duration.ofMillis(20);
+    private static final int CAPACITY = (int) (WORKERS * 1000 / SERVICE_TIME.toMillis());
+    private static final Duration DEADLINE = Duration.ofMillis(250);
+    private static final Duration RUN = Duration.ofSeconds(5);
+
+    @Test
+    void goodputStaysStableUnderThreeTimesOverload() {
+        double nominal = goodput(null, CAPACITY);
+        double overloaded = goodput(null, 3 * CAPACITY);
+        double shedNominal = goodput(shedding(), CAPACITY);
+        LoadSheddingFilter filter = shedding();
+        double shedOverloaded = goodput(filter, 3 * CAPACITY);
+
+        System.out.printf("[benchmark] capacity %d req/s, client deadline %d ms%n", CAPACITY, DEADLINE.toMillis());
+        System.out.printf("[benchmark] no shedding:       1x load %.0f req/s, 3x load %.0f req/s%n", nominal, overloaded);
+        System.out.printf("[benchmark] adaptive shedding: 1x load %.0f req/s, 3x load %.0f req/s (final limit %d)%n",
+                shedNominal, shedOverloaded, filter.limiter("inventory-service").getLimit());
+        assertTrue(shedOverloaded >= 0.8 * shedNominal, "goodput under 3x overload: " + shedOverloaded);
+    }
+
+    private static LoadSheddingFilter shedding() {
+        return new LoadSheddingFilter(new LoadSheddingProperties(true, 20, 1, 500), new SimpleMeterRegistry(),
+                AdmissionControlTest.knownServices("inventory-service"));
+    }
+
+    /**
+     * Charge en boucle ouverte : {@code rate} requêtes par seconde, émises par paquets toutes les 10 ms.
+     */
+    private double goodput(LoadSheddingFilter filter, int rate) {
+        // Un service neuf par scénario : le retard accumulé par le précédent ne doit pas compter
+        ExecutorService workers = Executors.newFixedThreadPool(WORKERS);
+        try {
+            GatewayFilterChain upstream = service(workers);
+            AtomicInteger good = new AtomicInteger();
+            long ticks = RUN.toMillis() / 10;
+            Flux.interval(Duration.ofMillis(10))
+                    .take(ticks)
+                    .flatMap(tick -> Flux.range(0, rate / 100))
+                    .flatMap(i -> request(filter, upstream, good), Integer.MAX_VALUE)
+                    .blockLast(RUN.plus(DEADLINE).plusSeconds(30));
+            return good.get() * 1000.0 / RUN.toMillis();
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private static GatewayFilterChain service(ExecutorService workers) {
+        return exchange -> Mono.fromFuture(CompletableFuture.runAsync(() -> {
+            try {
+                Thread.sleep(SERVICE_TIME.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, workers), true).then(Mono.fromRunnable(() -> exchange.getResponse().setStatusCode(HttpStatus.OK)));
+    }
+
+    private Mono<Void> request(LoadSheddingFilter filter, GatewayFilterChain upstream, AtomicInteger good) {
+        return Mono.defer(() -> {
+            MockServerWebExchange exchange = MockServerWebExchange.from(
+                    MockServerHttpRequest.get("/inventory-service/api/products/1"));
+            Mono<Void> call = filter == null ? upstream.filter(exchange) : filter.filter(exchange, upstream);
+            return call.timeout(DEADLINE)
+                    .then(Mono.fromRunnable(() -> {
+                        if (exchange.getResponse().getStatusCode() == HttpStatus.OK) {
+                            good.incrementAndGet();
+                        }
+                    }))
+                    .onErrorResume(e -> Mono.empty())
+                    .then();
+        });
+    }
+}
@@ -0,0 +1,180 @@
+package org.sid.gateway.filters;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sid.gateway.config.ResponseCacheProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheFilterTest {
+
+    private static final String PRODUCTS = "/inventory-service/api/products";
+
+    private ResponseCacheFilter filter;
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+    private final GatewayFilterChain upstream = exchange -> {
+        upstreamCalls.incrementAndGet();
+        exchange.getResponse().setStatusCode(HttpStatus.OK);
+        exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        byte[] body = ("{\"call\":" + upstreamCalls.get() + "}").getBytes(StandardCharsets.UTF_8);
+        return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+    };
+
+    @BeforeEach
+    void setUp() {
+        ResponseCacheProperties properties = new ResponseCacheProperties(true, DataSize.ofMegabytes(1),
+                DataSize.ofKilobytes(64), Map.of(PRODUCTS, Duration.ofMinutes(1), PRODUCTS + "/changes", Duration.ZERO),
+                Set.of(PRODUCTS + "/bulk"));
+        filter = new ResponseCacheFilter(properties, new ResponseCache(properties, new SimpleMeterRegistry()));
+    }
+
+    @Test
+    void secondGetIsServedFromCache() {
+        MockServerWebExchange first = get(PRODUCTS + "/1");
+        MockServerWebExchange second = get(PRODUCTS + "/1");
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals("MISS", first.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS));
+        assertEquals("HIT", second.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS));
+        assertEquals(first.getResponse().getBodyAsString().block(), second.getResponse().getBodyAsString().block());
+        assertEquals(first.getResponse().getHeaders().getETag(), second.getResponse().getHeaders().getETag());
+    }
+
+    @Test
+    void matchingIfNoneMatchReturnsNotModified() {
+        String etag = get(PRODUCTS + "/1").getResponse().getHeaders().getETag();
+
+        MockServerWebExchange revalidated = exchange(MockServerHttpRequest.get(PRODUCTS + "/1").ifNoneMatch(etag));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidated.getResponse().getStatusCode());
+        assertEquals(etag, revalidated.getResponse().getHeaders().getETag());
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void authenticatedRequestsBypassTheCache() {
+        exchange(MockServerHttpRequest.get(PRODUCTS + "/1").header(HttpHeaders.AUTHORIZATION, "Bearer x"));
+        exchange(MockServerHttpRequest.get(PRODUCTS + "/1").header(HttpHeaders.AUTHORIZATION, "Bearer x"));
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void writeThroughGatewayInvalidatesTheService() {
+        get(PRODUCTS + "/1");
+        exchange(MockServerHttpRequest.put(PRODUCTS + "/1"));
+        MockServerWebExchange after = get(PRODUCTS + "/1");
+
+        assertEquals(3, upstreamCalls.get());
+        assertEquals("MISS", after.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS));
+    }
+
+    @Test
+    void unconfiguredRoutesAreNotCached() {
+        get("/customer-service/api/customers/1");
+        get("/customer-service/api/customers/1");
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void readOnlyPostDoesNotInvalidate() {
+        get(PRODUCTS + "/1");
+        exchange(MockServerHttpRequest.post(PRODUCTS + "/bulk"));
+        MockServerWebExchange after = get(PRODUCTS + "/1");
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals("HIT", after.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS));
+    }
+
+    @Test
+    void excludedSubPathIsNotCached() {
+        get(PRODUCTS + "/changes");
+        get(PRODUCTS + "/changes");
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void streamedResponsesAreNotBuffered() {
+        GatewayFilterChain ndjson = exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_NDJSON);
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory()
+                    .wrap("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8))));
+        };
+
+        MockServerWebExchange first = exchange(MockServerHttpRequest.get(PRODUCTS + "/export"), ndjson);
+        exchange(MockServerHttpRequest.get(PRODUCTS + "/export"), ndjson);
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals("BYPASS", first.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS));
+    }
+
+    @Test
+    void chunkedBodyLargerThanAnEntryIsStreamedWithoutCaching() {
+        // 100 tampons de 1 Ko sans Content-Length : au-delà de max-entry-size (64 Ko)
+        GatewayFilterChain chunked = exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return exchange.getResponse().writeWith(Flux.range(0, 100)
+                    .map(i -> exchange.getResponse().bufferFactory().wrap(new byte[1024])));
+        };
+
+        MockServerWebExchange first = exchange(MockServerHttpRequest.get(PRODUCTS + "/large"), chunked);
+        exchange(MockServerHttpRequest.get(PRODUCTS + "/large"), chunked);
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals("BYPASS", first.getResponse().getHeaders().getFirst(ResponseCacheFilter.CACHE_STATUS));
+        assertEquals(100 * 1024, first.getResponse().getBodyAsString().block().length());
+    }
+
+    @Test
+    void chunkedBodyWithinTheLimitIsCached() {
+        GatewayFilterChain chunked = exchange -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return exchange.getResponse().writeWith(Flux.just("[1,", "2,", "3]")
+                    .map(part -> exchange.getResponse().bufferFactory().wrap(part.getBytes(StandardCharsets.UTF_8))));
+        };
+
+        exchange(MockServerHttpRequest.get(PRODUCTS + "/small"), chunked);
+        MockServerWebExchange second = exchange(MockServerHttpRequest.get(PRODUCTS + "/small"), chunked);
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals("[1,2,3]", second.getResponse().getBodyAsString().block());
+    }
+
+    private MockServerWebExchange get(String path) {
+        return exchange(MockServerHttpRequest.get(path));
+    }
+
+    private MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        return exchange(request, upstream);
+    }
+
+    private MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request, GatewayFilterChain chain) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        filter.filter(exchange, chain).block();
+        return exchange;
+    }
+}
@@ -0,0 +1,118 @@
+package org.sid.gateway.filters;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.sid.gateway.config.SingleFlightProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightFilterTest {
+
+    private static final String PRODUCT = "/inventory-service/api/products/1";
+    private static final int CONCURRENT = 50;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    @Test
+    void concurrentIdenticalGetsShareOneUpstreamCall() {
+        SingleFlightFilter filter = filter(Duration.ofSeconds(5));
+        GatewayFilterChain upstream = stubUpstream(Duration.ofMillis(200));
+
+        List<MockServerWebExchange> exchanges = run(filter, upstream, () -> MockServerHttpRequest.get(PRODUCT));
+
+        assertEquals(1, upstreamCalls.get());
+        for (MockServerWebExchange exchange : exchanges) {
+            assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+            assertEquals("{\"call\":1}", exchange.getResponse().getBodyAsString().block());
+        }
+        assertEquals(0, filter.inflightCount());
+        assertEquals((CONCURRENT - 1.0) / CONCURRENT,
+                meterRegistry.get("gateway.singleflight.dedup.ratio").gauge().value(), 1e-9);
+    }
+
+    @Test
+    void followersFallBackToUpstreamAfterMaxWait() {
+        SingleFlightFilter filter = filter(Duration.ofMillis(20));
+        GatewayFilterChain upstream = stubUpstream(Duration.ofMillis(500));
+
+        run(filter, upstream, () -> MockServerHttpRequest.get(PRODUCT));
+
+        assertEquals(CONCURRENT, upstreamCalls.get());
+    }
+
+    @Test
+    void authenticatedRequestsAreNotShared() {
+        SingleFlightFilter filter = filter(Duration.ofSeconds(5));
+        GatewayFilterChain upstream = stubUpstream(Duration.ofMillis(100));
+
+        run(filter, upstream, () -> MockServerHttpRequest.get(PRODUCT).header(HttpHeaders.AUTHORIZATION, "Bearer x"));
+
+        assertEquals(CONCURRENT, upstreamCalls.get());
+    }
+
+    @Test
+    void bodiesOverTheLimitAreStreamedAndNotShared() {
+        SingleFlightFilter filter = new SingleFlightFilter(
+                new SingleFlightProperties(true, Duration.ofSeconds(5), DataSize.ofBytes(1024)), meterRegistry);
+        // Corps de 4 Ko en morceaux, sans Content-Length
+        GatewayFilterChain upstream = exchange -> Mono.delay(Duration.ofMillis(200)).then(Mono.defer(() -> {
+            upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return exchange.getResponse().writeWith(Flux.range(0, 4)
+                    .map(i -> exchange.getResponse().bufferFactory().wrap(new byte[1024])));
+        }));
+
+        List<MockServerWebExchange> exchanges = run(filter, upstream, () -> MockServerHttpRequest.get(PRODUCT));
+
+        // Les requêtes en attente sont libérées et transmises au service
+        assertEquals(CONCURRENT, upstreamCalls.get());
+        for (MockServerWebExchange exchange : exchanges) {
+            assertEquals(4096, exchange.getResponse().getBodyAsString().block().length());
+        }
+        assertEquals(0, filter.inflightCount());
+    }
+
+    private SingleFlightFilter filter(Duration maxWait) {
+        return new SingleFlightFilter(new SingleFlightProperties(true, maxWait, DataSize.ofKilobytes(512)), meterRegistry);
+    }
+
+    // Service simulé : répond après un délai, le corps indique le numéro de l'appel
+    private GatewayFilterChain stubUpstream(Duration latency) {
+        return exchange -> Mono.delay(latency).then(Mono.defer(() -> {
+            int call = upstreamCalls.incrementAndGet();
+            exchange.getResponse().setStatusCode(HttpStatus.OK);
+            exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            byte[] body = ("{\"call\":" + call + "}").getBytes(StandardCharsets.UTF_8);
+            return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory().wrap(body)));
+        }));
+    }
+
+    private List<MockServerWebExchange> run(SingleFlightFilter filter, GatewayFilterChain upstream,
+                                            Supplier<MockServerHttpRequest.BaseBuilder<?>> request) {
+        List<MockServerWebExchange> exchanges = Flux.range(0, CONCURRENT)
+                .map(i -> MockServerWebExchange.from(request.get()))
+                .collectList()
+                .block();
+        Flux.fromIterable(exchanges)
+                .flatMap(exchange -> filter.filter(exchange, upstream), CONCURRENT)
+                .blockLast(Duration.ofSeconds(10));
+        return exchanges;
+    }
+}
@@ -5,12 +5,16 @@ import org.sid.inventoryservice.repository.ProductRepository;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
 import org.springframework.context.annotation.Bean;
 import org.springframework.data.rest.core.config.RepositoryRestConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import java.util.List;
 
-@SpringBootApplication
+// ConnectionFactory R2DBC construite par ReactiveDataConfig à partir de la DataSource JPA
+@SpringBootApplication(exclude = R2dbcAutoConfiguration.class)
+@EnableScheduling
 public class InventoryServiceApplication {
 
     public static void main(String[] args) {
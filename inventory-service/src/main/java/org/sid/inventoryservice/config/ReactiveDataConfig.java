@@ -0,0 +1,76 @@
+package org.sid.inventoryservice.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Option;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.time.Duration;
+
+/**
+ * Accès R2DBC de la lecture réactive des produits ({@code /api/products/reactive}). Il vise la base
+ * de la DataSource JPA (même URL H2 ou Postgres, mêmes identifiants) : les écritures JPA y sont
+ * visibles dès leur commit. Seules les lectures passent par R2DBC ; les transactions restent JPA.
+ * Désactivé par défaut ({@code inventory.reactive.enabled}) : son pool s'ajoute à celui de Hikari.
+ */
+@Configuration
+@ConditionalOnProperty(name = "inventory.reactive.enabled", havingValue = "true")
+public class ReactiveDataConfig {
+
+    private static final Option<String> H2_URL = Option.valueOf("url");
+
+    /**
+     * Le pool n'est pas exposé comme bean {@code ConnectionFactory} : sa seule présence désactiverait
+     * la DataSource auto-configurée (et R2dbcAutoConfiguration est exclue pour la même raison).
+     */
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(DataSourceProperties dataSourceProperties,
+                                                 @Value("${inventory.reactive.pool.max-size:10}") int maxSize,
+                                                 @Value("${inventory.reactive.pool.max-acquire-time:30s}") Duration maxAcquireTime) {
+        ConnectionFactoryOptions.Builder options = r2dbcOptions(dataSourceProperties.determineUrl()).mutate();
+        if (dataSourceProperties.determineUsername() != null) {
+            options.option(ConnectionFactoryOptions.USER, dataSourceProperties.determineUsername());
+        }
+        if (dataSourceProperties.determinePassword() != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, dataSourceProperties.determinePassword());
+        }
+        ConnectionPool pool = new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                .name("inventory-reactive")
+                .initialSize(1)
+                .maxSize(maxSize)
+                .maxAcquireTime(maxAcquireTime)
+                .build());
+        return DatabaseClient.create(pool);
+    }
+
+    @Bean
+    public DisposableBean reactiveConnectionPoolShutdown(DatabaseClient reactiveDatabaseClient) {
+        return () -> ((ConnectionPool) reactiveDatabaseClient.getConnectionFactory()).dispose();
+    }
+
+    /**
+     * URL JDBC vers options R2DBC : H2 reçoit l'URL telle quelle (mémoire ou fichier, options comprises),
+     * les autres pilotes ({@code jdbc:postgresql://hote:port/base}) la même adresse sans paramètres JDBC.
+     */
+    static ConnectionFactoryOptions r2dbcOptions(String jdbcUrl) {
+        if (jdbcUrl.startsWith("jdbc:h2:")) {
+            return ConnectionFactoryOptions.builder()
+                    .option(ConnectionFactoryOptions.DRIVER, "h2")
+                    .option(H2_URL, jdbcUrl.substring("jdbc:h2:".length()))
+                    .build();
+        }
+        if (!jdbcUrl.startsWith("jdbc:")) {
+            throw new IllegalArgumentException("Unsupported JDBC URL for R2DBC: " + jdbcUrl);
+        }
+        int query = jdbcUrl.indexOf('?');
+        return ConnectionFactoryOptions.parse("r2dbc:" + jdbcUrl.substring("jdbc:".length(), query < 0 ? jdbcUrl.length() : query));
+    }
+}
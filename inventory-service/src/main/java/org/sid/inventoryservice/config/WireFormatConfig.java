@@ -0,0 +1,26 @@
+package org.sid.inventoryservice.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Représentation binaire Smile ({@code application/x-jackson-smile}) des réponses de
+ * {@code /api/products}, choisie par l'en-tête Accept ; le JSON reste la représentation par défaut.
+ * Mêmes champs que le JSON, mais les noms de champs répétés sont référencés au lieu d'être réécrits.
+ * Les ressources Spring Data REST ne produisent que HAL/JSON : un client qui accepte aussi le JSON
+ * les reçoit dans ce format.
+ */
+@Configuration
+public class WireFormatConfig {
+
+    /**
+     * Remplace le convertisseur Smile par défaut de Spring MVC, construit sans la configuration Jackson de Spring Boot.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory()));
+    }
+}
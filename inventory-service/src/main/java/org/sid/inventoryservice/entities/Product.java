@@ -1,8 +1,10 @@
 package org.sid.inventoryservice.entities;
 
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Data
@@ -10,12 +12,26 @@ import lombok.*;
 @AllArgsConstructor
 @Builder
 @ToString
+@Table(
+        uniqueConstraints = @UniqueConstraint(name = "uk_product_name", columnNames = "name"),
+        indexes = {
+                @Index(name = "idx_product_price", columnList = "price"),
+                @Index(name = "idx_product_quantity", columnList = "quantity")
+        })
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Séquence avec optimiseur pooled : un appel à la séquence pour 50 ids, INSERT batchables
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "product_seq")
+    @SequenceGenerator(name = "product_seq", sequenceName = "product_seq", allocationSize = 50)
     private Long id;
     private String name;
     private double price;
     private int quantity;
+    // Nombre de shards de stock (0 : stock porté par la seule ligne produit)
+    @ColumnDefault("0")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private int stockShards;
+    @Version
+    private Long version;
 }
@@ -0,0 +1,24 @@
+package org.sid.inventoryservice.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+// L'index unique (product_id, shard) sert aussi les recherches par produit
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_stock_shard", columnNames = {"product_id", "shard"}))
+public class StockShard {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_shard_seq")
+    @SequenceGenerator(name = "stock_shard_seq", sequenceName = "stock_shard_seq", allocationSize = 50)
+    private Long id;
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+    private int shard;
+    private int quantity;
+}
@@ -0,0 +1,31 @@
+package org.sid.inventoryservice.events;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Diffusion en mémoire vers les abonnés du même processus (caches locaux, tests).
+ */
+@Component
+@Slf4j
+public class LoopbackProductChangePublisher implements ProductChangePublisher {
+
+    private final List<ProductChangeSubscriber> subscribers;
+
+    public LoopbackProductChangePublisher(List<ProductChangeSubscriber> subscribers) {
+        this.subscribers = subscribers;
+    }
+
+    @Override
+    public void publish(ProductChangedEvent event) {
+        for (ProductChangeSubscriber subscriber : subscribers) {
+            try {
+                subscriber.onProductChanged(event);
+            } catch (RuntimeException e) {
+                log.warn("Product change subscriber failed for product {}", event.productId(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.sid.inventoryservice.events;
+
+import org.sid.inventoryservice.records.ProductChangeBatch;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Journal borné des derniers changements, exposé sur /api/products/changes pour que les
+ * services consommateurs (billing-service) invalident leurs caches. Le journal est propre
+ * à chaque instance et repart de zéro au redémarrage : les séquences ne se comparent qu'au
+ * sein d'un même {@link #instanceId()}, tiré au démarrage, et le consommateur garde un curseur par instance.
+ */
+@Component
+public class ProductChangeFeed implements ProductChangePublisher {
+
+    private final String instanceId = UUID.randomUUID().toString();
+    private final int capacity;
+    private final Deque<ProductChangedEvent> events = new ArrayDeque<>();
+    private long lastSequence;
+
+    public ProductChangeFeed(@Value("${inventory.events.feed-capacity:10000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void publish(ProductChangedEvent event) {
+        events.addLast(event.withSequence(++lastSequence));
+        if (events.size() > capacity) {
+            events.removeFirst();
+        }
+    }
+
+    public String instanceId() {
+        return instanceId;
+    }
+
+    /**
+     * Curseurs du consommateur par instance : seul celui de cette instance compte. Une instance
+     * inconnue du consommateur (première interrogation, redémarrage) répond comme pour {@code since = -1}.
+     */
+    public ProductChangeBatch changesSince(Map<String, Long> cursors, int limit) {
+        return changesSince(cursors.getOrDefault(instanceId, -1L), limit);
+    }
+
+    /**
+     * Renvoie les changements dont la séquence est strictement supérieure à {@code since}.
+     * {@code truncated} indique que des changements ont été perdus (journal dépassé ou
+     * redémarrage) : le consommateur doit alors tout invalider.
+     */
+    public synchronized ProductChangeBatch changesSince(long since, int limit) {
+        if (since < 0) {
+            return new ProductChangeBatch(instanceId, lastSequence, false, List.of());
+        }
+        long oldest = events.isEmpty() ? lastSequence + 1 : events.peekFirst().sequence();
+        boolean truncated = since > lastSequence || since < oldest - 1;
+        List<ProductChangedEvent> changes = new ArrayList<>();
+        long latest = truncated ? lastSequence : since;
+        if (!truncated) {
+            for (ProductChangedEvent event : events) {
+                if (event.sequence() > since) {
+                    if (changes.size() == limit) {
+                        break;
+                    }
+                    changes.add(event);
+                    latest = event.sequence();
+                }
+            }
+        }
+        return new ProductChangeBatch(instanceId, latest, truncated, changes);
+    }
+}
@@ -0,0 +1,10 @@
+package org.sid.inventoryservice.events;
+
+/**
+ * Point d'extension pour diffuser les modifications de produits (feed HTTP, loopback, broker...).
+ * Appelé une fois la transaction validée.
+ */
+public interface ProductChangePublisher {
+
+    void publish(ProductChangedEvent event);
+}
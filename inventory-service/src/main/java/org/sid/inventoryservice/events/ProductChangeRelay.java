@@ -0,0 +1,25 @@
+package org.sid.inventoryservice.events;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+
+/**
+ * Relaie les événements émis par ProductServiceImpl vers tous les publishers, après commit
+ * uniquement : une transaction annulée ne doit invalider aucun cache.
+ */
+@Component
+public class ProductChangeRelay {
+
+    private final List<ProductChangePublisher> publishers;
+
+    public ProductChangeRelay(List<ProductChangePublisher> publishers) {
+        this.publishers = publishers;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        publishers.forEach(publisher -> publisher.publish(event));
+    }
+}
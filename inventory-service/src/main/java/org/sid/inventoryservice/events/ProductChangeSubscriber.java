@@ -0,0 +1,7 @@
+package org.sid.inventoryservice.events;
+
+@FunctionalInterface
+public interface ProductChangeSubscriber {
+
+    void onProductChanged(ProductChangedEvent event);
+}
@@ -0,0 +1,31 @@
+package org.sid.inventoryservice.events;
+
+public record ProductChangedEvent(
+        long sequence,
+        Long productId,
+        Long version,
+        ChangeType type,
+        String name
+) {
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static ProductChangedEvent created(Long productId, Long version, String name) {
+        return new ProductChangedEvent(0, productId, version, ChangeType.CREATED, name);
+    }
+
+    public static ProductChangedEvent updated(Long productId, Long version, String name) {
+        return new ProductChangedEvent(0, productId, version, ChangeType.UPDATED, name);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(0, productId, null, ChangeType.DELETED, null);
+    }
+
+    public ProductChangedEvent withSequence(long sequence) {
+        return new ProductChangedEvent(sequence, productId, version, type, name);
+    }
+}
@@ -0,0 +1,37 @@
+package org.sid.inventoryservice.events;
+
+import lombok.RequiredArgsConstructor;
+import org.sid.inventoryservice.entities.Product;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.rest.core.annotation.HandleAfterCreate;
+import org.springframework.data.rest.core.annotation.HandleAfterDelete;
+import org.springframework.data.rest.core.annotation.HandleAfterSave;
+import org.springframework.data.rest.core.annotation.RepositoryEventHandler;
+import org.springframework.stereotype.Component;
+
+/**
+ * Les écritures faites par Spring Data REST ({@code /products}) contournent ProductServiceImpl :
+ * elles sont publiées ici dans le même flux de changements.
+ */
+@Component
+@RepositoryEventHandler(Product.class)
+@RequiredArgsConstructor
+public class ProductRepositoryEventHandler {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @HandleAfterCreate
+    public void afterCreate(Product product) {
+        eventPublisher.publishEvent(ProductChangedEvent.created(product.getId(), product.getVersion(), product.getName()));
+    }
+
+    @HandleAfterSave
+    public void afterSave(Product product) {
+        eventPublisher.publishEvent(ProductChangedEvent.updated(product.getId(), product.getVersion(), product.getName()));
+    }
+
+    @HandleAfterDelete
+    public void afterDelete(Product product) {
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(product.getId()));
+    }
+}
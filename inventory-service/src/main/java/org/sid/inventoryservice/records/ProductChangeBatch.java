@@ -0,0 +1,16 @@
+package org.sid.inventoryservice.records;
+
+import org.sid.inventoryservice.events.ProductChangedEvent;
+
+import java.util.List;
+
+/**
+ * Changements d'une instance d'inventory-service ; {@code latestSequence} n'a de sens que pour {@code instanceId}.
+ */
+public record ProductChangeBatch(
+        String instanceId,
+        long latestSequence,
+        boolean truncated,
+        List<ProductChangedEvent> changes
+) {
+}
@@ -0,0 +1,7 @@
+package org.sid.inventoryservice.records;
+
+public record ShardCount(
+        Long productId,
+        long shards
+) {
+}
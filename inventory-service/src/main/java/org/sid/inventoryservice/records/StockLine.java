@@ -0,0 +1,7 @@
+package org.sid.inventoryservice.records;
+
+public record StockLine(
+        Long productId,
+        int quantity
+) {
+}
@@ -0,0 +1,42 @@
+package org.sid.inventoryservice.records;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Résultat d'une réservation ou d'une libération. {@code remaining} est absent pour un produit
+ * réparti en shards : le stock restant n'y est pas relu à chaque opération (ce serait une somme
+ * sur tous les shards) ; il est reporté dans {@code Product.quantity} à la réconciliation suivante.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record StockResult(
+        Long productId,
+        int requested,
+        boolean success,
+        Integer remaining,
+        String message,
+        @JsonIgnore Failure failure
+) {
+    // Cause d'un échec, traduite en statut HTTP par le contrôleur
+    public enum Failure {
+        INVALID,
+        NOT_FOUND,
+        CONFLICT
+    }
+
+    public static StockResult success(Long productId, int requested, Integer remaining) {
+        return new StockResult(productId, requested, true, remaining, null, null);
+    }
+
+    public static StockResult failure(Long productId, int requested, String message) {
+        return new StockResult(productId, requested, false, null, message, Failure.CONFLICT);
+    }
+
+    public static StockResult invalid(Long productId, int requested, String message) {
+        return new StockResult(productId, requested, false, null, message, Failure.INVALID);
+    }
+
+    public static StockResult notFound(Long productId, int requested) {
+        return new StockResult(productId, requested, false, null, "Product not found with id: " + productId, Failure.NOT_FOUND);
+    }
+}
@@ -0,0 +1,11 @@
+package org.sid.inventoryservice.records;
+
+public record StockSnapshot(
+        Long id,
+        String name,
+        double price,
+        int quantity,
+        int stockShards,
+        Long version
+) {
+}
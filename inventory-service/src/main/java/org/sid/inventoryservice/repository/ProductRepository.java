@@ -1,22 +1,40 @@
 
 package org.sid.inventoryservice.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.records.StockSnapshot;
+import org.sid.inventoryservice.search.ProductNameEntry;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RestResource;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
     Optional<Product> findByName(String name);
 
+    @RestResource(exported = false)
+    Slice<Product> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
     Page<Product> findByNameContainingIgnoreCase(String name, Pageable pageable);
 
     Page<Product> findByPriceBetween(double minPrice, double maxPrice, Pageable pageable);
@@ -24,8 +42,80 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p WHERE p.quantity < :threshold")
     Page<Product> findLowStockProducts(@Param("threshold") int threshold, Pageable pageable);
 
+    // Variantes Slice (sans COUNT) et COUNT séparés, pour servir les totaux depuis CountCache
+    @RestResource(exported = false)
+    Slice<Product> findAllBy(Pageable pageable);
+
+    @RestResource(exported = false)
+    Slice<Product> readByNameContainingIgnoreCase(String name, Pageable pageable);
+
+    @RestResource(exported = false)
+    long countByNameContainingIgnoreCase(String name);
+
+    @RestResource(exported = false)
+    Slice<Product> readByPriceBetween(double minPrice, double maxPrice, Pageable pageable);
+
+    @RestResource(exported = false)
+    long countByPriceBetween(double minPrice, double maxPrice);
+
+    @RestResource(exported = false)
+    @Query("SELECT p FROM Product p WHERE p.quantity < :threshold")
+    Slice<Product> readLowStockProducts(@Param("threshold") int threshold, Pageable pageable);
+
+    @RestResource(exported = false)
+    @Query("SELECT COUNT(p) FROM Product p WHERE p.quantity < :threshold")
+    long countLowStockProducts(@Param("threshold") int threshold);
+
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @RestResource(exported = false)
+    Stream<Product> streamAll();
+
+    @Query("SELECT new org.sid.inventoryservice.search.ProductNameEntry(p.id, p.name) FROM Product p")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "1000"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @RestResource(exported = false)
+    Stream<ProductNameEntry> streamNames();
+
     boolean existsByName(String name);
 
+    @Query("SELECT p.name FROM Product p WHERE p.name IN :names")
+    @RestResource(exported = false)
+    Set<String> findExistingNames(@Param("names") Collection<String> names);
+
+    // Décrément conditionnel en une seule instruction : le verrou de ligne sérialise les
+    // réservations concurrentes d'un même produit, sans lecture préalable ni verrou global
+    // Un produit dont le stock est réparti en shards n'est pas décrémenté ici
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = p.quantity - :n, p.version = p.version + 1 WHERE p.id = :id AND p.stockShards = 0 AND p.quantity >= :n")
+    @RestResource(exported = false)
+    int reserveStock(@Param("id") Long id, @Param("n") int n);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = p.quantity + :n, p.version = p.version + 1 WHERE p.id = :id AND p.stockShards = 0")
+    @RestResource(exported = false)
+    int releaseStock(@Param("id") Long id, @Param("n") int n);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Product p SET p.quantity = :quantity, p.version = p.version + 1 WHERE p.id = :id AND p.quantity <> :quantity")
+    @RestResource(exported = false)
+    int reconcileQuantity(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    @RestResource(exported = false)
+    Optional<Product> lockById(@Param("id") Long id);
+
+    @Query("SELECT p.version FROM Product p WHERE p.id = :id")
+    @RestResource(exported = false)
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("SELECT new org.sid.inventoryservice.records.StockSnapshot(p.id, p.name, p.price, p.quantity, p.stockShards, p.version) FROM Product p WHERE p.id = :id")
+    @RestResource(exported = false)
+    Optional<StockSnapshot> findStockSnapshot(@Param("id") Long id);
+
     @Query("SELECT SUM(p.quantity) FROM Product p")
     Long getTotalInventoryQuantity();
+
+    @Query("SELECT SUM(p.price * p.quantity) FROM Product p")
+    Double getTotalInventoryValue();
 }
\ No newline at end of file
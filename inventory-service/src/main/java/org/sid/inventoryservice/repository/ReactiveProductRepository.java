@@ -0,0 +1,105 @@
+package org.sid.inventoryservice.repository;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.sid.inventoryservice.entities.Product;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+/**
+ * Lectures non bloquantes de la table {@code product} (R2DBC), en SQL portable H2/Postgres.
+ * Les pages sont triées par id pour rester stables d'une requête à l'autre.
+ */
+@Repository
+@ConditionalOnProperty(name = "inventory.reactive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class ReactiveProductRepository {
+
+    private static final String COLUMNS = "SELECT id, name, price, quantity, stock_shards, version FROM product";
+    private static final String PAGE = " ORDER BY id LIMIT :limit OFFSET :offset";
+    private static final String NAME_CONTAINS = " WHERE LOWER(name) LIKE :pattern ESCAPE '\\'";
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<Product> findById(Long id) {
+        return databaseClient.sql(COLUMNS + " WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveProductRepository::toProduct)
+                .one();
+    }
+
+    public Flux<Product> findAllById(Collection<Long> ids) {
+        return databaseClient.sql(COLUMNS + " WHERE id IN (:ids)")
+                .bind("ids", ids)
+                .map(ReactiveProductRepository::toProduct)
+                .all();
+    }
+
+    public Flux<Product> findByNameContaining(String name, long offset, int limit) {
+        return page(databaseClient.sql(COLUMNS + NAME_CONTAINS + PAGE)
+                .bind("pattern", containsPattern(name)), offset, limit);
+    }
+
+    public Mono<Long> countByNameContaining(String name) {
+        return count(databaseClient.sql("SELECT COUNT(*) FROM product" + NAME_CONTAINS)
+                .bind("pattern", containsPattern(name)));
+    }
+
+    public Flux<Product> findByPriceBetween(double minPrice, double maxPrice, long offset, int limit) {
+        return page(databaseClient.sql(COLUMNS + " WHERE price BETWEEN :min AND :max" + PAGE)
+                .bind("min", minPrice)
+                .bind("max", maxPrice), offset, limit);
+    }
+
+    public Mono<Long> countByPriceBetween(double minPrice, double maxPrice) {
+        return count(databaseClient.sql("SELECT COUNT(*) FROM product WHERE price BETWEEN :min AND :max")
+                .bind("min", minPrice)
+                .bind("max", maxPrice));
+    }
+
+    public Flux<Product> findLowStock(int threshold, long offset, int limit) {
+        return page(databaseClient.sql(COLUMNS + " WHERE quantity < :threshold" + PAGE)
+                .bind("threshold", threshold), offset, limit);
+    }
+
+    public Mono<Long> countLowStock(int threshold) {
+        return count(databaseClient.sql("SELECT COUNT(*) FROM product WHERE quantity < :threshold")
+                .bind("threshold", threshold));
+    }
+
+    private static Flux<Product> page(DatabaseClient.GenericExecuteSpec spec, long offset, int limit) {
+        return spec.bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveProductRepository::toProduct)
+                .all();
+    }
+
+    private static Mono<Long> count(DatabaseClient.GenericExecuteSpec spec) {
+        return spec.map(row -> row.get(0, Long.class)).one();
+    }
+
+    // Même sémantique que findByNameContainingIgnoreCase : % et _ de la saisie pris littéralement
+    private static String containsPattern(String name) {
+        String escaped = name.toLowerCase()
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+
+    private static Product toProduct(Readable row) {
+        return Product.builder()
+                .id(row.get("id", Long.class))
+                .name(row.get("name", String.class))
+                .price(row.get("price", Double.class))
+                .quantity(row.get("quantity", Integer.class))
+                .stockShards(row.get("stock_shards", Integer.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+}
@@ -0,0 +1,41 @@
+package org.sid.inventoryservice.repository;
+
+import jakarta.persistence.LockModeType;
+import org.sid.inventoryservice.entities.StockShard;
+import org.sid.inventoryservice.records.ShardCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.rest.core.annotation.RepositoryRestResource;
+
+import java.util.List;
+
+@RepositoryRestResource(exported = false)
+public interface StockShardRepository extends JpaRepository<StockShard, Long> {
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockShard s SET s.quantity = s.quantity - :n WHERE s.productId = :productId AND s.shard = :shard AND s.quantity >= :n")
+    int take(@Param("productId") Long productId, @Param("shard") int shard, @Param("n") int n);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE StockShard s SET s.quantity = s.quantity + :n WHERE s.productId = :productId AND s.shard = :shard")
+    int put(@Param("productId") Long productId, @Param("shard") int shard, @Param("n") int n);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM StockShard s WHERE s.productId = :productId ORDER BY s.shard")
+    List<StockShard> lockShards(@Param("productId") Long productId);
+
+    List<StockShard> findByProductIdOrderByShard(Long productId);
+
+    @Query("SELECT COALESCE(SUM(s.quantity), 0) FROM StockShard s WHERE s.productId = :productId")
+    long sumQuantity(@Param("productId") Long productId);
+
+    @Query("SELECT new org.sid.inventoryservice.records.ShardCount(s.productId, COUNT(s)) FROM StockShard s GROUP BY s.productId")
+    List<ShardCount> countShards();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM StockShard s WHERE s.productId = :productId")
+    int deleteShards(@Param("productId") Long productId);
+}
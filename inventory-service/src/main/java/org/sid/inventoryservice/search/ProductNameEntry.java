@@ -0,0 +1,4 @@
+package org.sid.inventoryservice.search;
+
+public record ProductNameEntry(Long id, String name) {
+}
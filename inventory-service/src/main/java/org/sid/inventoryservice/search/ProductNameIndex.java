@@ -0,0 +1,300 @@
+package org.sid.inventoryservice.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.sid.inventoryservice.events.ProductChangeSubscriber;
+import org.sid.inventoryservice.events.ProductChangedEvent;
+import org.sid.inventoryservice.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Index inversé en mémoire des noms de produits, par trigrammes, pour la recherche par
+ * sous-chaîne sans scan de la table. Construit au démarrage et tenu à jour par les événements
+ * de changement publiés par ProductServiceImpl. Les résultats sont classés : nom exact,
+ * préfixe du nom, préfixe d'un mot, puis sous-chaîne ; à rang égal, le nom le plus court d'abord.
+ * Les événements ne portent que les écritures de cette instance : l'index est reconstruit
+ * périodiquement ({@code inventory.search.index.resync-interval-ms}) pour reprendre celles des autres.
+ */
+@Component
+@Slf4j
+public class ProductNameIndex implements ProductChangeSubscriber {
+
+    public record SearchResult(List<Long> ids, long total) {
+    }
+
+    private static final int GRAM = 3;
+
+    private final ProductRepository productRepository;
+    private final boolean enabled;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private State state = new State();
+    private volatile boolean ready;
+    // Événements reçus pendant une reconstruction, rejoués sur le nouvel état (gardé par lui-même)
+    private final List<ProductChangedEvent> pending = new ArrayList<>();
+    private boolean building;
+
+    public ProductNameIndex(ProductRepository productRepository,
+                            @Value("${inventory.search.index.enabled:true}") boolean enabled) {
+        this.productRepository = productRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Les changements publiés pendant la lecture de la table sont mis de côté puis rejoués sur
+     * le nouvel état avant qu'il ne serve : une écriture concurrente n'est pas perdue. L'ancien
+     * état, s'il existe, continue de servir et de recevoir les changements jusqu'à l'échange.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${inventory.search.index.resync-interval-ms:300000}",
+            fixedDelayString = "${inventory.search.index.resync-interval-ms:300000}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        synchronized (pending) {
+            pending.clear();
+            building = true;
+        }
+        State rebuilt = new State();
+        try (Stream<ProductNameEntry> entries = productRepository.streamNames()) {
+            entries.forEach(entry -> rebuilt.add(entry.id(), entry.name()));
+        } catch (RuntimeException e) {
+            synchronized (pending) {
+                building = false;
+                pending.clear();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            state = rebuilt;
+            List<ProductChangedEvent> replay;
+            synchronized (pending) {
+                replay = new ArrayList<>(pending);
+                pending.clear();
+                building = false;
+                // Un changement qui n'est plus mis de côté attend le verrou puis s'applique après le rejeu
+                ready = true;
+            }
+            replay.forEach(this::apply);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Product name index built with {} products in {} ms", rebuilt.live(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void put(Long id, String name) {
+        lock.writeLock().lock();
+        try {
+            state.remove(id);
+            state.add(id, name);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            state.remove(id);
+            compactIfNeeded();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onProductChanged(ProductChangedEvent event) {
+        synchronized (pending) {
+            if (building) {
+                pending.add(event);
+            }
+        }
+        if (ready) {
+            apply(event);
+        }
+    }
+
+    private void apply(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.ChangeType.DELETED) {
+            remove(event.productId());
+        } else if (event.name() != null) {
+            put(event.productId(), event.name());
+        } else {
+            productRepository.findById(event.productId()).ifPresentOrElse(
+                    product -> put(product.getId(), product.getName()),
+                    () -> remove(event.productId()));
+        }
+    }
+
+    public SearchResult search(String query, int offset, int limit) {
+        String q = normalize(query);
+        lock.readLock().lock();
+        try {
+            int[] candidates = state.candidates(q);
+            long[] ranked = new long[candidates.length];
+            int matches = 0;
+            for (int doc : candidates) {
+                String name = state.names[doc];
+                if (!state.deleted.get(doc) && name.contains(q)) {
+                    // rang (2 bits) | longueur du nom (16 bits) | document (32 bits)
+                    ranked[matches++] = ((long) rank(name, q) << 48)
+                            | ((long) Math.min(name.length(), 0xFFFF) << 32)
+                            | doc;
+                }
+            }
+            Arrays.sort(ranked, 0, matches);
+            List<Long> ids = new ArrayList<>(Math.max(0, Math.min(limit, matches - offset)));
+            for (int i = offset; i < matches && i < offset + limit; i++) {
+                ids.add(state.ids[(int) ranked[i]]);
+            }
+            return new SearchResult(ids, matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void compactIfNeeded() {
+        if (state.deletedCount > 1024 && state.deletedCount > state.size / 4) {
+            State compacted = new State();
+            for (int doc = 0; doc < state.size; doc++) {
+                if (!state.deleted.get(doc)) {
+                    compacted.add(state.ids[doc], state.names[doc]);
+                }
+            }
+            state = compacted;
+        }
+    }
+
+    private static int rank(String name, String q) {
+        if (name.equals(q)) return 0;
+        if (name.startsWith(q)) return 1;
+        if (name.contains(" " + q)) return 2;
+        return 3;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static long gram(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+
+    /**
+     * Structures de l'index. Les documents sont ajoutés en fin de tableau : chaque liste de
+     * postings est donc triée, ce qui permet des intersections par fusion.
+     */
+    private static final class State {
+        long[] ids = new long[1024];
+        String[] names = new String[1024];
+        final BitSet deleted = new BitSet();
+        final Map<Long, Integer> docById = new HashMap<>();
+        final Map<Long, Postings> postings = new HashMap<>();
+        int size;
+        int deletedCount;
+
+        int live() {
+            return size - deletedCount;
+        }
+
+        void add(Long id, String rawName) {
+            String name = normalize(rawName);
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                names = Arrays.copyOf(names, size * 2);
+            }
+            int doc = size++;
+            ids[doc] = id;
+            names[doc] = name;
+            docById.put(id, doc);
+            for (int i = 0; i + GRAM <= name.length(); i++) {
+                postings.computeIfAbsent(gram(name, i), k -> new Postings()).add(doc);
+            }
+        }
+
+        void remove(Long id) {
+            Integer doc = docById.remove(id);
+            if (doc != null) {
+                deleted.set(doc);
+                deletedCount++;
+            }
+        }
+
+        int[] candidates(String q) {
+            if (q.length() < GRAM) {
+                // Requête trop courte pour les trigrammes : parcours de tous les noms
+                int[] all = new int[size];
+                for (int doc = 0; doc < size; doc++) {
+                    all[doc] = doc;
+                }
+                return all;
+            }
+            List<Postings> lists = new ArrayList<>();
+            Set<Long> seen = new HashSet<>();
+            for (int i = 0; i + GRAM <= q.length(); i++) {
+                long gram = gram(q, i);
+                if (seen.add(gram)) {
+                    Postings list = postings.get(gram);
+                    if (list == null) {
+                        return new int[0];
+                    }
+                    lists.add(list);
+                }
+            }
+            lists.sort(Comparator.comparingInt(p -> p.length));
+            int[] result = Arrays.copyOf(lists.get(0).docs, lists.get(0).length);
+            int length = result.length;
+            for (int l = 1; l < lists.size() && length > 0; l++) {
+                length = intersect(result, length, lists.get(l));
+            }
+            return Arrays.copyOf(result, length);
+        }
+
+        private static int intersect(int[] result, int length, Postings other) {
+            int i = 0, j = 0, k = 0;
+            while (i < length && j < other.length) {
+                if (result[i] < other.docs[j]) {
+                    i++;
+                } else if (result[i] > other.docs[j]) {
+                    j++;
+                } else {
+                    result[k++] = result[i];
+                    i++;
+                    j++;
+                }
+            }
+            return k;
+        }
+    }
+
+    private static final class Postings {
+        int[] docs = new int[4];
+        int length;
+
+        void add(int doc) {
+            if (length > 0 && docs[length - 1] == doc) {
+                return;
+            }
+            if (length == docs.length) {
+                docs = Arrays.copyOf(docs, length * 2);
+            }
+            docs[length++] = doc;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.sid.inventoryservice.services;
+
+import org.sid.inventoryservice.events.ProductChangeSubscriber;
+import org.sid.inventoryservice.events.ProductChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache de courte durée des COUNT de pagination, par forme de requête (filtre + paramètres).
+ * Vidé à chaque écriture ; le TTL borne l'écart pour les écritures faites hors du service.
+ */
+@Component
+public class CountCache implements ProductChangeSubscriber {
+
+    private record Entry(long count, long expiresAt) {
+    }
+
+    private final Map<String, Entry> counts = new ConcurrentHashMap<>();
+    // Incrémentée à chaque vidage : un COUNT commencé avant n'est pas mis en cache
+    private final AtomicLong generation = new AtomicLong();
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    public CountCache(@Value("${count-cache.ttl:30s}") Duration ttl,
+                      @Value("${count-cache.max-entries:1000}") int maxEntries) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+    }
+
+    public long get(String key, LongSupplier counter) {
+        OptionalLong cached = peek(key);
+        if (cached.isPresent()) {
+            return cached.getAsLong();
+        }
+        long started = generation();
+        long count = counter.getAsLong();
+        put(key, count, started);
+        return count;
+    }
+
+    /**
+     * Lecture sans calcul, pour les appelants qui obtiennent le COUNT de façon asynchrone.
+     */
+    public OptionalLong peek(String key) {
+        Entry entry = counts.get(key);
+        return entry != null && entry.expiresAt() - System.nanoTime() > 0
+                ? OptionalLong.of(entry.count())
+                : OptionalLong.empty();
+    }
+
+    /**
+     * Génération à relever avant de lancer le COUNT, puis à passer à {@link #put}.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Ignoré si le cache a été vidé depuis {@code started} : le COUNT peut précéder l'écriture.
+     */
+    public void put(String key, long count, long started) {
+        if (counts.size() >= maxEntries) {
+            counts.clear();
+        }
+        counts.put(key, new Entry(count, System.nanoTime() + ttlNanos));
+        if (generation.get() != started) {
+            counts.remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        counts.clear();
+    }
+
+    @Override
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidateAll();
+    }
+}
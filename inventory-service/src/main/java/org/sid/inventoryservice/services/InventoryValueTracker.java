@@ -0,0 +1,140 @@
+package org.sid.inventoryservice.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.sid.inventoryservice.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Valeur totale du stock maintenue incrémentalement (mode {@code counter}) pour une lecture O(1).
+ * Les écritures faites hors de ProductServiceImpl (Spring Data REST, scripts) ne sont pas vues :
+ * le compteur est donc resynchronisé par la requête d'agrégat au-delà de {@code max-staleness}.
+ * <p>
+ * Un commit et la prise en compte de sa variation ne sont pas atomiques : chaque transaction tient
+ * {@code commitLock} en lecture du début de son commit jusqu'à l'application de sa variation, et la
+ * resynchronisation le prend en écriture autour de l'agrégat. Un commit tombe ainsi entièrement avant
+ * l'agrégat (compté par celui-ci, sa variation effacée avec les autres) ou entièrement après
+ * (variation ajoutée), jamais les deux. Les commits attendent le temps de l'agrégat.
+ */
+@Component
+@Slf4j
+public class InventoryValueTracker {
+
+    private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long maxStalenessNanos;
+    // Verrou plutôt que synchronized : la resynchronisation interroge la base (threads virtuels)
+    private final ReentrantLock lock = new ReentrantLock();
+    // Lecture : fenêtre commit -> variation appliquée ; écriture : agrégat de resynchronisation
+    private final ReentrantReadWriteLock commitLock = new ReentrantReadWriteLock();
+    // Variations depuis la dernière resynchronisation, ajoutées sans verrou
+    private final DoubleAdder deltas = new DoubleAdder();
+    private double total;
+    private long syncedAt;
+    private volatile boolean synced;
+
+    public InventoryValueTracker(ProductRepository productRepository,
+                                 PlatformTransactionManager transactionManager,
+                                 @Value("${inventory.value.mode:query}") String mode,
+                                 @Value("${inventory.value.counter.max-staleness:5m}") Duration maxStaleness) {
+        this.productRepository = productRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.enabled = "counter".equalsIgnoreCase(mode);
+        this.maxStalenessNanos = maxStaleness.toNanos();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long current() {
+        lock.lock();
+        try {
+            if (!synced || System.nanoTime() - syncedAt > maxStalenessNanos) {
+                // Connexion prise avant le verrou : les commits bloqués tiennent la leur, le pool peut être vide
+                transactionTemplate.executeWithoutResult(status -> resync());
+                log.debug("Inventory value counter resynchronized to {}", total);
+            }
+            return (long) (total + deltas.sum());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Les variations des commits terminés sont dans l'agrégat : effacées ; celles des commits suivants
+     * s'appliquent après la libération du verrou.
+     */
+    private void resync() {
+        commitLock.writeLock().lock();
+        try {
+            deltas.reset();
+            Double value = productRepository.getTotalInventoryValue();
+            total = value != null ? value : 0;
+            syncedAt = System.nanoTime();
+            synced = true;
+        } finally {
+            commitLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applique une variation de valeur, après commit si une transaction est en cours.
+     */
+    public void adjust(double delta) {
+        if (!enabled || delta == 0) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                private boolean committing;
+
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    commitLock.readLock().lock();
+                    committing = true;
+                }
+
+                @Override
+                public void afterCommit() {
+                    apply(delta);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (committing) {
+                        commitLock.readLock().unlock();
+                    }
+                }
+            });
+        } else {
+            commitLock.readLock().lock();
+            try {
+                apply(delta);
+            } finally {
+                commitLock.readLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Sans {@code lock} : appelé après commit, connexion encore tenue, alors qu'une resynchronisation
+     * peut détenir ce verrou en attendant une connexion.
+     */
+    private void apply(double delta) {
+        if (synced) {
+            deltas.add(delta);
+        }
+    }
+}
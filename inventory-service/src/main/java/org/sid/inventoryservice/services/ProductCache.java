@@ -0,0 +1,139 @@
+package org.sid.inventoryservice.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.events.ProductChangeSubscriber;
+import org.sid.inventoryservice.events.ProductChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Cache des produits par id, en lecture traversante. Chaque écriture passe par le flux de
+ * changements et évince l'entrée après commit ; le TTL borne l'écart pour les autres écritures,
+ * dont celles des autres instances, qui n'évincent que leur propre cache.
+ * Les entrées sont des copies détachées : un appelant ne peut pas modifier la valeur en cache.
+ */
+@Component
+public class ProductCache implements ProductChangeSubscriber {
+
+    private static final int EVICTION_STRIPES = 64;
+
+    private final Cache<Long, Product> products;
+    private final boolean enabled;
+    // Compteurs d'évictions par tranche d'ids : détectent une éviction survenue pendant un chargement groupé
+    private final AtomicLongArray evictions = new AtomicLongArray(EVICTION_STRIPES);
+
+    public ProductCache(MeterRegistry meterRegistry,
+                        @Value("${inventory.cache.products.enabled:true}") boolean enabled,
+                        @Value("${inventory.cache.products.max-size:10000}") long maxSize,
+                        @Value("${inventory.cache.products.ttl:30s}") Duration ttl) {
+        this.enabled = enabled;
+        this.products = CaffeineCacheMetrics.monitor(meterRegistry,
+                Caffeine.newBuilder()
+                        .maximumSize(maxSize)
+                        .expireAfterWrite(ttl)
+                        .recordStats()
+                        .<Long, Product>build(),
+                "inventory.products");
+        Gauge.builder("cache.hit.ratio", products, c -> c.stats().hitRate())
+                .tag("cache", "inventory.products")
+                .register(meterRegistry);
+    }
+
+    public Optional<Product> get(Long id, Function<Long, Optional<Product>> loader) {
+        if (!enabled) {
+            return loader.apply(id);
+        }
+        // Chargement sous le verrou de la clé : une éviction concurrente attend sa fin
+        Product product = products.get(id, key -> loader.apply(key).map(ProductCache::copy).orElse(null));
+        return Optional.ofNullable(product).map(ProductCache::copy);
+    }
+
+    /**
+     * Les absents sont chargés en une requête, hors des verrous de clé du cache : une éviction
+     * peut donc passer entre la lecture et l'insertion. Les compteurs d'évictions relevés avant
+     * le chargement sont comparés après l'insertion, et une entrée évincée entre-temps est retirée.
+     */
+    public List<Product> getAll(Collection<Long> ids, Function<Collection<Long>, List<Product>> loader) {
+        if (!enabled) {
+            return loader.apply(ids);
+        }
+        Map<Long, Product> found = new HashMap<>(products.getAllPresent(ids));
+        List<Long> missing = ids.stream().distinct().filter(id -> !found.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            long[] stamps = new long[EVICTION_STRIPES];
+            for (int i = 0; i < EVICTION_STRIPES; i++) {
+                stamps[i] = evictions.get(i);
+            }
+            List<Product> loaded = loader.apply(missing);
+            for (Product product : loaded) {
+                Product cached = copy(product);
+                found.put(product.getId(), cached);
+                products.put(product.getId(), cached);
+            }
+            for (Product product : loaded) {
+                int stripe = stripe(product.getId());
+                if (evictions.get(stripe) != stamps[stripe]) {
+                    products.invalidate(product.getId());
+                }
+            }
+        }
+        return ids.stream()
+                .distinct()
+                .map(found::get)
+                .filter(Objects::nonNull)
+                .map(ProductCache::copy)
+                .toList();
+    }
+
+    public Optional<Long> cachedVersion(Long id) {
+        Product product = enabled ? products.getIfPresent(id) : null;
+        return Optional.ofNullable(product).map(Product::getVersion);
+    }
+
+    public void evict(Long id) {
+        evictions.incrementAndGet(stripe(id));
+        products.invalidate(id);
+    }
+
+    public void invalidateAll() {
+        for (int i = 0; i < EVICTION_STRIPES; i++) {
+            evictions.incrementAndGet(i);
+        }
+        products.invalidateAll();
+    }
+
+    private static int stripe(Long id) {
+        return Math.floorMod(Long.hashCode(id), EVICTION_STRIPES);
+    }
+
+    @Override
+    public void onProductChanged(ProductChangedEvent event) {
+        evict(event.productId());
+    }
+
+    private static Product copy(Product product) {
+        return Product.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .price(product.getPrice())
+                .quantity(product.getQuantity())
+                .stockShards(product.getStockShards())
+                .version(product.getVersion())
+                .build();
+    }
+}
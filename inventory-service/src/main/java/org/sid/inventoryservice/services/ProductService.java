@@ -1,20 +1,51 @@
 package org.sid.inventoryservice.services;
 
 import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.records.BatchResult;
+import org.sid.inventoryservice.records.StockLine;
+import org.sid.inventoryservice.records.StockResult;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface ProductService {
 
     Page<Product> getAllProducts(int page, int size);
+    Slice<Product> getAllProducts(int page, int size, boolean includeTotals);
     Page<Product> getAllProducts();
+    Slice<Product> getProductsAfter(Long afterId, int size);
+    void exportProducts(Consumer<Product> consumer);
     Product getProductById(Long id);
+    List<Product> getProductsByIds(Collection<Long> ids);
+    Optional<String> getProductETag(Long id);
+    String productETag(Product product);
     Product getProductByName(String name);
     Page<Product> searchProductsByName(String name, int page, int size);
+    Slice<Product> searchProductsByName(String name, int page, int size, boolean includeTotals);
     Page<Product> getProductsByPriceRange(double minPrice, double maxPrice, int page, int size);
+    Slice<Product> getProductsByPriceRange(double minPrice, double maxPrice, int page, int size, boolean includeTotals);
     Page<Product> getLowStockProducts(int threshold, int page, int size);
+    Slice<Product> getLowStockProducts(int threshold, int page, int size, boolean includeTotals);
     void saveProduct(Product product);
+    BatchResult saveProducts(List<Product> products);
     void updateProduct(Long id, Product product);
-    void updateProductQuantity(Long id, int quantity);
+    Product updateProductQuantity(Long id, int quantity);
+
+    StockResult reserveStock(Long id, int quantity);
+
+    List<StockResult> reserveStock(List<StockLine> lines, boolean allOrNothing);
+
+    StockResult releaseStock(Long id, int quantity);
+
+    List<StockResult> releaseStock(List<StockLine> lines);
+
+    Product enableStockShards(Long id, int shards);
+
+    Product disableStockShards(Long id);
     void deleteProduct(Long id);
     boolean productExists(Long id);
     boolean productExistsByName(String name);
@@ -1,14 +1,46 @@
 package org.sid.inventoryservice.services;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.events.ProductChangedEvent;
+import org.sid.inventoryservice.records.BatchResult;
+import org.sid.inventoryservice.records.StockLine;
+import org.sid.inventoryservice.records.StockResult;
+import org.sid.inventoryservice.records.StockSnapshot;
 import org.sid.inventoryservice.repository.ProductRepository;
+import org.sid.inventoryservice.search.ProductNameIndex;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
@@ -17,66 +49,202 @@ import org.springframework.transaction.annotation.Transactional;
 public class ProductServiceImpl implements ProductService {
 
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryValueTracker inventoryValueTracker;
+    private final EntityManager entityManager;
+    private final CountCache countCache;
+    private final ProductNameIndex productNameIndex;
+    private final StripedStockService stripedStockService;
+    private final QuantityWriteBuffer quantityWriteBuffer;
+    private final ProductCache productCache;
+
+    // Taille des lots vidés puis détachés du contexte de persistance lors d'un import
+    private static final int BATCH_FLUSH_SIZE = 1000;
+    // Nombre de noms par requête IN de vérification d'unicité
+    private static final int NAME_LOOKUP_CHUNK = 5000;
 
     @Override
     public Page<Product> getAllProducts(int page, int size) {
+        return (Page<Product>) getAllProducts(page, size, true);
+    }
+
+    @Override
+    public Slice<Product> getAllProducts(int page, int size, boolean includeTotals) {
         log.info("Fetching products page {} with size {}", page, size);
         Pageable pageable = PageRequest.of(page, size);
-        return productRepository.findAll(pageable);
+        Slice<Product> slice = withPendingQuantities(productRepository.findAllBy(pageable));
+        return includeTotals ? withTotals(slice, "all", productRepository::count) : slice;
     }
 
     @Override
     public Page<Product> getAllProducts() {
         log.info("Fetching all products with default pagination");
-        Pageable pageable = PageRequest.of(0, 10);
-        return productRepository.findAll(pageable);
+        return getAllProducts(0, 10);
+    }
+
+    @Override
+    public Slice<Product> getProductsAfter(Long afterId, int size) {
+        log.info("Fetching {} products after id {}", size, afterId);
+        Long from = afterId != null ? afterId : Long.MIN_VALUE;
+        return withPendingQuantities(productRepository.findByIdGreaterThanOrderByIdAsc(from, PageRequest.of(0, size)));
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public void exportProducts(Consumer<Product> consumer) {
+        log.info("Exporting all products");
+        try (Stream<Product> products = productRepository.streamAll()) {
+            products.forEach(product -> {
+                consumer.accept(product);
+                // Détacher chaque entité pour que le contexte de persistance reste de taille constante
+                entityManager.detach(product);
+            });
+        }
+    }
+
+    // Pas de transaction propre : un hit du cache ne prend pas de connexion
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Product getProductById(Long id) {
         log.info("Fetching product with id: {}", id);
-        return productRepository.findById(id)
+        return productCache.get(id, productRepository::findById)
+                .map(this::withPendingQuantity)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
     }
 
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<Product> getProductsByIds(Collection<Long> ids) {
+        log.info("Fetching {} products by id", ids.size());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Product> products = productCache.getAll(ids, productRepository::findAllById);
+        products.forEach(this::withPendingQuantity);
+        return products;
+    }
+
+    // Revalidation d'un GET conditionnel : la version vient du cache ou d'une projection, sans charger l'entité
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<String> getProductETag(Long id) {
+        Optional<Long> version = productCache.cachedVersion(id);
+        if (version.isEmpty()) {
+            version = productRepository.findVersionById(id);
+        }
+        return version.map(v -> etag(id, v));
+    }
+
+    @Override
+    public String productETag(Product product) {
+        return etag(product.getId(), product.getVersion());
+    }
+
+    // Une quantité en attente d'écriture modifie le corps sans changer la version : elle entre dans l'ETag
+    private String etag(Long id, Long version) {
+        Integer pending = quantityWriteBuffer.pendingQuantity(id);
+        return pending == null ? String.valueOf(version) : version + "-" + pending;
+    }
+
     @Override
     public Product getProductByName(String name) {
         log.info("Fetching product with name: {}", name);
         return productRepository.findByName(name)
+                .map(this::withPendingQuantity)
                 .orElseThrow(() -> new RuntimeException("Product not found with name: " + name));
     }
 
     @Override
     public Page<Product> searchProductsByName(String name, int page, int size) {
+        return (Page<Product>) searchProductsByName(name, page, size, true);
+    }
+
+    @Override
+    public Slice<Product> searchProductsByName(String name, int page, int size, boolean includeTotals) {
         log.info("Searching products by name: {}", name);
         Pageable pageable = PageRequest.of(page, size);
-        return productRepository.findByNameContainingIgnoreCase(name, pageable);
+        if (productNameIndex.isReady()) {
+            return searchWithIndex(name, pageable, includeTotals);
+        }
+        Slice<Product> slice = withPendingQuantities(productRepository.readByNameContainingIgnoreCase(name, pageable));
+        return includeTotals
+                ? withTotals(slice, "search:" + name.toLowerCase(), () -> productRepository.countByNameContainingIgnoreCase(name))
+                : slice;
     }
 
     @Override
     public Page<Product> getProductsByPriceRange(double minPrice, double maxPrice, int page, int size) {
+        return (Page<Product>) getProductsByPriceRange(minPrice, maxPrice, page, size, true);
+    }
+
+    @Override
+    public Slice<Product> getProductsByPriceRange(double minPrice, double maxPrice, int page, int size, boolean includeTotals) {
         log.info("Fetching products with price between {} and {}", minPrice, maxPrice);
         Pageable pageable = PageRequest.of(page, size);
-        return productRepository.findByPriceBetween(minPrice, maxPrice, pageable);
+        Slice<Product> slice = withPendingQuantities(productRepository.readByPriceBetween(minPrice, maxPrice, pageable));
+        return includeTotals
+                ? withTotals(slice, "price:" + minPrice + ":" + maxPrice, () -> productRepository.countByPriceBetween(minPrice, maxPrice))
+                : slice;
     }
 
     @Override
     public Page<Product> getLowStockProducts(int threshold, int page, int size) {
+        return (Page<Product>) getLowStockProducts(threshold, page, size, true);
+    }
+
+    @Override
+    public Slice<Product> getLowStockProducts(int threshold, int page, int size, boolean includeTotals) {
         log.info("Fetching low stock products with threshold: {}", threshold);
         Pageable pageable = PageRequest.of(page, size);
-        return productRepository.findLowStockProducts(threshold, pageable);
+        Slice<Product> slice = withPendingQuantities(productRepository.readLowStockProducts(threshold, pageable));
+        return includeTotals
+                ? withTotals(slice, "low-stock:" + threshold, () -> productRepository.countLowStockProducts(threshold))
+                : slice;
     }
 
-    @Override
-    public void saveProduct(Product product) {
-        log.info("Saving new product: {}", product.getName());
+    private Slice<Product> searchWithIndex(String name, Pageable pageable, boolean includeTotals) {
+        ProductNameIndex.SearchResult result = productNameIndex.search(name, (int) pageable.getOffset(), pageable.getPageSize());
+        Map<Long, Product> products = productRepository.findAllById(result.ids()).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        List<Product> content = result.ids().stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .map(this::withPendingQuantity)
+                .toList();
+        return includeTotals
+                ? new PageImpl<>(content, pageable, result.total())
+                : new SliceImpl<>(content, pageable, result.total() > pageable.getOffset() + pageable.getPageSize());
+    }
 
-        // Validation du nom
-        if (product.getName() != null && !product.getName().isEmpty()) {
-            if (productRepository.existsByName(product.getName())) {
-                throw new RuntimeException("Product name already exists: " + product.getName());
+    // Quantité en attente dans le tampon d'écriture différée : l'entité est détachée avant
+    // d'être modifiée pour que la valeur ne soit pas écrite au commit
+    private Product withPendingQuantity(Product product) {
+        Integer pending = quantityWriteBuffer.pendingQuantity(product.getId());
+        if (pending != null && pending != product.getQuantity()) {
+            if (entityManager.contains(product)) {
+                entityManager.detach(product);
             }
+            product.setQuantity(pending);
         }
+        return product;
+    }
+
+    private Slice<Product> withPendingQuantities(Slice<Product> slice) {
+        if (quantityWriteBuffer.isEnabled()) {
+            slice.getContent().forEach(this::withPendingQuantity);
+        }
+        return slice;
+    }
+
+    // Le COUNT n'est exécuté que si la page ne permet pas de déduire le total, et il est mis en cache
+    private Page<Product> withTotals(Slice<Product> slice, String countKey, LongSupplier counter) {
+        return PageableExecutionUtils.getPage(slice.getContent(), slice.getPageable(),
+                () -> countCache.get(countKey, counter));
+    }
+
+    @Override
+    public void saveProduct(Product product) {
+        log.info("Saving new product: {}", product.getName());
 
         // Validation du prix et quantité
         if (product.getPrice() < 0) {
@@ -86,53 +254,287 @@ public class ProductServiceImpl implements ProductService {
             throw new RuntimeException("Quantity cannot be negative");
         }
 
-        productRepository.save(product);
+        // Toujours une création : un id fourni par le client fusionnerait avec le produit existant
+        product.setId(null);
+        product.setVersion(null);
+
+        // L'unicité du nom est garantie par la contrainte uk_product_name : un seul INSERT
+        Product saved;
+        try {
+            saved = productRepository.saveAndFlush(product);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Product name already exists: " + product.getName(), e);
+        }
+        inventoryValueTracker.adjust(saved.getPrice() * saved.getQuantity());
+        eventPublisher.publishEvent(ProductChangedEvent.created(saved.getId(), saved.getVersion(), saved.getName()));
+    }
+
+    @Override
+    public BatchResult saveProducts(List<Product> products) {
+        log.info("Saving batch of {} products", products.size());
+
+        // Validation en une passe ; l'unicité des noms est vérifiée par requêtes IN groupées
+        Set<String> existingNames = new HashSet<>();
+        List<String> names = products.stream().map(Product::getName).filter(Objects::nonNull).distinct().toList();
+        for (int i = 0; i < names.size(); i += NAME_LOOKUP_CHUNK) {
+            existingNames.addAll(productRepository.findExistingNames(names.subList(i, Math.min(i + NAME_LOOKUP_CHUNK, names.size()))));
+        }
+        Set<String> batchNames = new HashSet<>();
+        List<BatchResult.BatchError> errors = new ArrayList<>();
+        List<Product> valid = new ArrayList<>(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            Product product = products.get(i);
+            if (product.getPrice() < 0) {
+                errors.add(new BatchResult.BatchError(i, "Price cannot be negative"));
+            } else if (product.getQuantity() < 0) {
+                errors.add(new BatchResult.BatchError(i, "Quantity cannot be negative"));
+            } else if (product.getName() != null
+                    && (existingNames.contains(product.getName()) || !batchNames.add(product.getName()))) {
+                errors.add(new BatchResult.BatchError(i, "Product name already exists: " + product.getName()));
+            } else {
+                product.setId(null);
+                product.setVersion(null);
+                valid.add(product);
+            }
+        }
+
+        // INSERT batchés (hibernate.jdbc.batch_size) ; le contexte est vidé à chaque lot
+        double addedValue = 0;
+        for (int from = 0; from < valid.size(); from += BATCH_FLUSH_SIZE) {
+            List<Product> chunk = valid.subList(from, Math.min(from + BATCH_FLUSH_SIZE, valid.size()));
+            productRepository.saveAll(chunk);
+            entityManager.flush();
+            for (Product product : chunk) {
+                addedValue += product.getPrice() * product.getQuantity();
+                eventPublisher.publishEvent(ProductChangedEvent.created(product.getId(), product.getVersion(), product.getName()));
+            }
+            entityManager.clear();
+        }
+        inventoryValueTracker.adjust(addedValue);
+
+        return new BatchResult(products.size(), valid.size(), errors);
     }
 
     @Override
     public void updateProduct(Long id, Product product) {
         log.info("Updating product with id: {}", id);
 
+        // La quantité fournie remplace une éventuelle valeur en attente dans le tampon
+        quantityWriteBuffer.drain(id);
         Product existingProduct = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
 
-        // Vérifier si le nom a changé et s'il existe déjà
-        if (!existingProduct.getName().equals(product.getName()) &&
-                productRepository.existsByName(product.getName())) {
-            throw new RuntimeException("Product name already exists: " + product.getName());
-        }
-
+        double previousValue = existingProduct.getPrice() * existingProduct.getQuantity();
         existingProduct.setName(product.getName());
         existingProduct.setPrice(product.getPrice());
         existingProduct.setQuantity(product.getQuantity());
 
-        productRepository.save(existingProduct);
+        // Un nom déjà pris est rejeté par la contrainte uk_product_name
+        Product saved;
+        try {
+            saved = productRepository.saveAndFlush(existingProduct);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Product name already exists: " + product.getName(), e);
+        }
+        if (saved.getStockShards() > 0) {
+            stripedStockService.redistribute(id, saved.getQuantity());
+        }
+        inventoryValueTracker.adjust(saved.getPrice() * saved.getQuantity() - previousValue);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(id, saved.getVersion(), saved.getName()));
     }
 
     @Override
-    public void updateProductQuantity(Long id, int quantity) {
+    public Product updateProductQuantity(Long id, int quantity) {
         log.info("Updating product quantity for id: {} to {}", id, quantity);
 
         if (quantity < 0) {
             throw new RuntimeException("Quantity cannot be negative");
         }
 
+        if (quantityWriteBuffer.isEnabled()) {
+            // Écriture différée : une seule lecture, la valeur est fusionnée dans le tampon
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+            entityManager.detach(product);
+            quantityWriteBuffer.put(id, quantity);
+            product.setQuantity(quantity);
+            return product;
+        }
+        return writeQuantity(id, quantity);
+    }
+
+    // Applique d'abord la valeur en attente dans le tampon, pour qu'une écriture directe parte de la bonne base
+    private void applyBufferedQuantity(Long id) {
+        quantityWriteBuffer.drain(id).ifPresent(quantity -> writeQuantity(id, quantity));
+    }
+
+    private Product writeQuantity(Long id, int quantity) {
         Product existingProduct = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
 
+        int previousQuantity = existingProduct.getQuantity();
         existingProduct.setQuantity(quantity);
-        productRepository.save(existingProduct);
+        Product saved = productRepository.saveAndFlush(existingProduct);
+        if (saved.getStockShards() > 0) {
+            stripedStockService.redistribute(id, quantity);
+        }
+        inventoryValueTracker.adjust(saved.getPrice() * (quantity - previousQuantity));
+        eventPublisher.publishEvent(ProductChangedEvent.updated(id, saved.getVersion(), saved.getName()));
+        return saved;
+    }
+
+    @Override
+    public StockResult reserveStock(Long id, int quantity) {
+        log.info("Reserving {} units of product {}", quantity, id);
+        return reserve(id, quantity);
+    }
+
+    @Override
+    public List<StockResult> reserveStock(List<StockLine> lines, boolean allOrNothing) {
+        log.info("Reserving stock for {} lines (allOrNothing={})", lines.size(), allOrNothing);
+
+        // Traitement par id croissant : deux réservations groupées concurrentes verrouillent
+        // les lignes dans le même ordre et ne peuvent pas s'interbloquer
+        StockResult[] results = new StockResult[lines.size()];
+        boolean failed = false;
+        for (int i : orderedByProductId(lines)) {
+            StockLine line = lines.get(i);
+            if (failed && allOrNothing) {
+                results[i] = StockResult.failure(line.productId(), line.quantity(), "Not attempted");
+                continue;
+            }
+            results[i] = reserve(line.productId(), line.quantity());
+            failed |= !results[i].success();
+        }
+
+        if (failed && allOrNothing) {
+            // Les décréments déjà appliqués sont annulés avec la transaction
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            for (int i = 0; i < results.length; i++) {
+                if (results[i].success()) {
+                    results[i] = StockResult.failure(results[i].productId(), results[i].requested(), "Rolled back");
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    @Override
+    public StockResult releaseStock(Long id, int quantity) {
+        log.info("Releasing {} units of product {}", quantity, id);
+        return release(id, quantity);
+    }
+
+    @Override
+    public List<StockResult> releaseStock(List<StockLine> lines) {
+        log.info("Releasing stock for {} lines", lines.size());
+        StockResult[] results = new StockResult[lines.size()];
+        for (int i : orderedByProductId(lines)) {
+            results[i] = release(lines.get(i).productId(), lines.get(i).quantity());
+        }
+        return Arrays.asList(results);
+    }
+
+    private StockResult reserve(Long id, int quantity) {
+        if (id == null || quantity <= 0) {
+            return StockResult.invalid(id, quantity, "Quantity must be positive");
+        }
+        applyBufferedQuantity(id);
+        // Deux tentatives : le mode de stock (ligne produit ou shards) peut changer entre-temps
+        for (int attempt = 0; attempt < 2; attempt++) {
+            boolean striped = stripedStockService.isStriped(id);
+            boolean reserved = striped
+                    ? stripedStockService.reserve(id, quantity)
+                    : productRepository.reserveStock(id, quantity) == 1;
+            if (reserved) {
+                return stockChanged(id, quantity, -quantity, striped);
+            }
+            Optional<StockSnapshot> snapshot = productRepository.findStockSnapshot(id);
+            if (snapshot.isEmpty()) {
+                return StockResult.notFound(id, quantity);
+            }
+            if (stripedStockService.sync(id, snapshot.get().stockShards()) == striped) {
+                long available = striped ? stripedStockService.available(id) : snapshot.get().quantity();
+                return StockResult.failure(id, quantity, "Insufficient stock: " + available + " available");
+            }
+        }
+        return StockResult.failure(id, quantity, "Stock mode changed concurrently, retry");
+    }
+
+    private StockResult release(Long id, int quantity) {
+        if (id == null || quantity <= 0) {
+            return StockResult.invalid(id, quantity, "Quantity must be positive");
+        }
+        applyBufferedQuantity(id);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            boolean striped = stripedStockService.isStriped(id);
+            boolean released = striped
+                    ? stripedStockService.release(id, quantity)
+                    : productRepository.releaseStock(id, quantity) == 1;
+            if (released) {
+                return stockChanged(id, quantity, quantity, striped);
+            }
+            Optional<StockSnapshot> snapshot = productRepository.findStockSnapshot(id);
+            if (snapshot.isEmpty()) {
+                return StockResult.notFound(id, quantity);
+            }
+            stripedStockService.sync(id, snapshot.get().stockShards());
+        }
+        return StockResult.failure(id, quantity, "Stock mode changed concurrently, retry");
+    }
+
+    private StockResult stockChanged(Long id, int requested, int delta, boolean striped) {
+        StockSnapshot snapshot = productRepository.findStockSnapshot(id)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+        inventoryValueTracker.adjust(snapshot.price() * delta);
+        if (striped) {
+            // La ligne produit n'a pas changé : l'événement sera émis par la réconciliation des shards
+            return StockResult.success(id, requested, null);
+        }
+        eventPublisher.publishEvent(ProductChangedEvent.updated(id, snapshot.version(), snapshot.name()));
+        return StockResult.success(id, requested, snapshot.quantity());
+    }
+
+    @Override
+    public Product enableStockShards(Long id, int shards) {
+        log.info("Splitting stock of product {} across {} shards", id, shards);
+        applyBufferedQuantity(id);
+        Product product = stripedStockService.enable(id, shards);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(id, product.getVersion(), product.getName()));
+        return product;
+    }
+
+    @Override
+    public Product disableStockShards(Long id) {
+        log.info("Folding stock shards of product {}", id);
+        applyBufferedQuantity(id);
+        Product product = stripedStockService.disable(id);
+        eventPublisher.publishEvent(ProductChangedEvent.updated(id, product.getVersion(), product.getName()));
+        return product;
+    }
+
+    private static int[] orderedByProductId(List<StockLine> lines) {
+        return IntStream.range(0, lines.size())
+                .boxed()
+                .sorted(Comparator.comparing(i -> lines.get(i).productId(), Comparator.nullsLast(Comparator.naturalOrder())))
+                .mapToInt(Integer::intValue)
+                .toArray();
     }
 
     @Override
     public void deleteProduct(Long id) {
         log.info("Deleting product with id: {}", id);
+        quantityWriteBuffer.drain(id);
 
-        if (!productRepository.existsById(id)) {
-            throw new RuntimeException("Product not found with id: " + id);
-        }
+        Product existingProduct = productRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
 
-        productRepository.deleteById(id);
+        if (existingProduct.getStockShards() > 0) {
+            stripedStockService.drop(id);
+        }
+        productRepository.delete(existingProduct);
+        inventoryValueTracker.adjust(-existingProduct.getPrice() * existingProduct.getQuantity());
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
     }
 
     @Override
@@ -156,9 +558,11 @@ public class ProductServiceImpl implements ProductService {
     @Override
     public long getTotalInventoryValue() {
         log.info("Calculating total inventory value");
-        return productRepository.findAll().stream()
-                .mapToLong(product -> (long) (product.getPrice() * product.getQuantity()))
-                .sum();
+        if (inventoryValueTracker.isEnabled()) {
+            return inventoryValueTracker.current();
+        }
+        Double total = productRepository.getTotalInventoryValue();
+        return total != null ? total.longValue() : 0;
     }
 
     @Override
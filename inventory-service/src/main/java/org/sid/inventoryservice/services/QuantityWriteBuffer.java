@@ -0,0 +1,206 @@
+package org.sid.inventoryservice.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.events.ProductChangedEvent;
+import org.sid.inventoryservice.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Tampon d'écriture différée des quantités (mode {@code write-behind}) : les mises à jour
+ * successives d'un même produit sont fusionnées et seule la dernière valeur est écrite, par
+ * lot, au plus tard {@code max-lag-ms} après sa réception. Les lectures voient la valeur en attente.
+ * Le tampon est propre à l'instance : {@link #drain} ne protège une écriture directe que d'une valeur
+ * mise en attente par la même instance (garantie valable pour une seule instance d'inventory-service).
+ */
+@Component
+@Slf4j
+public class QuantityWriteBuffer {
+
+    private final ProductRepository productRepository;
+    private final StripedStockService stripedStockService;
+    private final InventoryValueTracker inventoryValueTracker;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int maxPending;
+    private final boolean flushOnShutdown;
+    private final Counter updates;
+    private final Counter writes;
+
+    private final Map<Long, Integer> pending = new ConcurrentHashMap<>();
+    // Verrou plutôt que synchronized : un thread virtuel qui attend la base ne bloque pas son thread porteur
+    private final ReentrantLock flushLock = new ReentrantLock();
+    // Valeurs en cours d'écriture : encore visibles en lecture jusqu'au commit
+    private volatile Map<Long, Integer> inflight = Map.of();
+
+    public QuantityWriteBuffer(ProductRepository productRepository,
+                               StripedStockService stripedStockService,
+                               InventoryValueTracker inventoryValueTracker,
+                               ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${inventory.quantity.write-behind.enabled:false}") boolean enabled,
+                               @Value("${inventory.quantity.write-behind.max-pending:10000}") int maxPending,
+                               @Value("${inventory.quantity.write-behind.flush-on-shutdown:true}") boolean flushOnShutdown) {
+        this.productRepository = productRepository;
+        this.stripedStockService = stripedStockService;
+        this.inventoryValueTracker = inventoryValueTracker;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Transaction propre : put() peut vider le tampon depuis la transaction d'un PATCH, qu'un
+        // flush en échec (valeurs gardées pour le suivant) ne doit pas marquer rollback-only
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.maxPending = maxPending;
+        this.flushOnShutdown = flushOnShutdown;
+        this.updates = meterRegistry.counter("inventory.quantity.buffer.updates");
+        this.writes = meterRegistry.counter("inventory.quantity.buffer.writes");
+        Gauge.builder("inventory.quantity.buffer.pending", pending, Map::size).register(meterRegistry);
+        // Nombre de mises à jour reçues par écriture effective en base
+        Gauge.builder("inventory.quantity.buffer.coalescing.ratio", this,
+                b -> b.writes.count() == 0 ? 0 : b.updates.count() / b.writes.count()).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void put(Long productId, int quantity) {
+        pending.put(productId, quantity);
+        updates.increment();
+        if (pending.size() >= maxPending) {
+            flush();
+        }
+    }
+
+    public Integer pendingQuantity(Long productId) {
+        if (!enabled) {
+            return null;
+        }
+        Integer quantity = pending.get(productId);
+        return quantity != null ? quantity : inflight.get(productId);
+    }
+
+    /**
+     * Retire la valeur en attente d'un produit pour qu'une écriture directe l'applique d'abord.
+     * Attend la fin d'un flush en cours sur ce produit. Si la transaction appelante est annulée,
+     * la valeur (déjà acquittée au client) est remise en attente.
+     */
+    public Optional<Integer> drain(Long productId) {
+        if (!enabled || (!pending.containsKey(productId) && !inflight.containsKey(productId))) {
+            return Optional.empty();
+        }
+        Integer quantity;
+        flushLock.lock();
+        try {
+            quantity = pending.remove(productId);
+        } finally {
+            flushLock.unlock();
+        }
+        if (quantity != null && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        // Une valeur reçue depuis prime sur celle retirée
+                        pending.putIfAbsent(productId, quantity);
+                    }
+                }
+            });
+        }
+        return Optional.ofNullable(quantity);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.quantity.write-behind.max-lag-ms:200}")
+    public void scheduledFlush() {
+        if (enabled) {
+            flush();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (enabled && flushOnShutdown) {
+            log.info("Flushing {} buffered quantity updates before shutdown", pending.size());
+            flush();
+        }
+    }
+
+    public int flush() {
+        flushLock.lock();
+        try {
+            return flushPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private int flushPending() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        Map<Long, Integer> batch = new HashMap<>();
+        for (Long id : new ArrayList<>(pending.keySet())) {
+            Integer quantity = pending.remove(id);
+            if (quantity != null) {
+                batch.put(id, quantity);
+            }
+        }
+        inflight = batch;
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+            writes.increment(batch.size());
+            return batch.size();
+        } catch (RuntimeException e) {
+            // Une valeur plus récente reçue pendant le flush prime sur celle du lot
+            batch.forEach(pending::putIfAbsent);
+            log.warn("Buffered quantity flush failed, {} updates kept for retry: {}", batch.size(), e.getMessage());
+            return 0;
+        } finally {
+            inflight = Map.of();
+        }
+    }
+
+    private void write(Map<Long, Integer> batch) {
+        // Une lecture IN puis des UPDATE groupés (hibernate.jdbc.batch_size), contrôlés par @Version
+        List<Product> changed = new ArrayList<>();
+        for (Product product : productRepository.findAllById(batch.keySet())) {
+            int quantity = batch.get(product.getId());
+            int previous = product.getQuantity();
+            if (quantity == previous) {
+                continue;
+            }
+            product.setQuantity(quantity);
+            inventoryValueTracker.adjust(product.getPrice() * (quantity - previous));
+            changed.add(product);
+        }
+        productRepository.saveAllAndFlush(changed);
+        for (Product product : changed) {
+            if (product.getStockShards() > 0) {
+                stripedStockService.redistribute(product.getId(), product.getQuantity());
+            }
+            eventPublisher.publishEvent(ProductChangedEvent.updated(product.getId(), product.getVersion(), product.getName()));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package org.sid.inventoryservice.services;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.repository.ReactiveProductRepository;
+import org.sid.inventoryservice.search.ProductNameIndex;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Lectures du catalogue sans thread bloqué : requêtes R2DBC, et seulement des structures en mémoire
+ * non bloquantes à côté (index des noms, COUNT en cache, quantités en écriture différée).
+ * Les écritures restent dans {@link ProductServiceImpl} (JPA) ; le cache des entités n'est pas consulté.
+ */
+@Service
+@ConditionalOnProperty(name = "inventory.reactive.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveProductService {
+
+    private final ReactiveProductRepository reactiveProductRepository;
+    private final ProductNameIndex productNameIndex;
+    private final CountCache countCache;
+    private final QuantityWriteBuffer quantityWriteBuffer;
+
+    public Mono<Product> getProductById(Long id) {
+        log.debug("Reactive fetch of product with id: {}", id);
+        return reactiveProductRepository.findById(id).map(this::withPendingQuantity);
+    }
+
+    public Flux<Product> getProductsByIds(Collection<Long> ids) {
+        log.debug("Reactive fetch of {} products by id", ids.size());
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return reactiveProductRepository.findAllById(ids).map(this::withPendingQuantity);
+    }
+
+    public Mono<Slice<Product>> searchProductsByName(String name, int page, int size, boolean includeTotals) {
+        log.debug("Reactive search of products by name: {}", name);
+        Pageable pageable = PageRequest.of(page, size);
+        if (productNameIndex.isReady()) {
+            return searchWithIndex(name, pageable, includeTotals);
+        }
+        return slice(reactiveProductRepository.findByNameContaining(name, pageable.getOffset(), size + 1), pageable,
+                includeTotals, "search:" + name.toLowerCase(), () -> reactiveProductRepository.countByNameContaining(name));
+    }
+
+    public Mono<Slice<Product>> getProductsByPriceRange(double minPrice, double maxPrice, int page, int size, boolean includeTotals) {
+        log.debug("Reactive fetch of products with price between {} and {}", minPrice, maxPrice);
+        Pageable pageable = PageRequest.of(page, size);
+        return slice(reactiveProductRepository.findByPriceBetween(minPrice, maxPrice, pageable.getOffset(), size + 1), pageable,
+                includeTotals, "price:" + minPrice + ":" + maxPrice, () -> reactiveProductRepository.countByPriceBetween(minPrice, maxPrice));
+    }
+
+    public Mono<Slice<Product>> getLowStockProducts(int threshold, int page, int size, boolean includeTotals) {
+        log.debug("Reactive fetch of low stock products with threshold: {}", threshold);
+        Pageable pageable = PageRequest.of(page, size);
+        return slice(reactiveProductRepository.findLowStock(threshold, pageable.getOffset(), size + 1), pageable,
+                includeTotals, "low-stock:" + threshold, () -> reactiveProductRepository.countLowStock(threshold));
+    }
+
+    private Mono<Slice<Product>> searchWithIndex(String name, Pageable pageable, boolean includeTotals) {
+        ProductNameIndex.SearchResult result = productNameIndex.search(name, (int) pageable.getOffset(), pageable.getPageSize());
+        return getProductsByIds(result.ids())
+                .collectMap(Product::getId, Function.identity())
+                .map(products -> {
+                    List<Product> content = inIndexOrder(result.ids(), products);
+                    return includeTotals
+                            ? new PageImpl<>(content, pageable, result.total())
+                            : new SliceImpl<>(content, pageable, result.total() > pageable.getOffset() + pageable.getPageSize());
+                });
+    }
+
+    private static List<Product> inIndexOrder(List<Long> ids, Map<Long, Product> products) {
+        return ids.stream().map(products::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * {@code content} porte un élément de plus que la page, qui indique s'il existe une page suivante.
+     * Même clé de COUNT que la lecture JPA : un total déjà en cache évite la seconde requête.
+     */
+    private Mono<Slice<Product>> slice(Flux<Product> content, Pageable pageable, boolean includeTotals,
+                                       String countKey, Supplier<Mono<Long>> counter) {
+        int size = pageable.getPageSize();
+        Mono<List<Product>> products = content.take(size + 1).map(this::withPendingQuantity).collectList();
+        if (!includeTotals) {
+            return products.map(list -> list.size() > size
+                    ? new SliceImpl<>(list.subList(0, size), pageable, true)
+                    : new SliceImpl<>(list, pageable, false));
+        }
+        OptionalLong cached = countCache.peek(countKey);
+        Mono<Long> total = cached.isPresent()
+                ? Mono.just(cached.getAsLong())
+                : Mono.defer(() -> {
+                    long started = countCache.generation();
+                    return counter.get().doOnNext(count -> countCache.put(countKey, count, started));
+                });
+        return Mono.zip(products, total, (list, count) ->
+                new PageImpl<>(list.size() > size ? list.subList(0, size) : list, pageable, count));
+    }
+
+    private Product withPendingQuantity(Product product) {
+        Integer pending = quantityWriteBuffer.pendingQuantity(product.getId());
+        if (pending != null) {
+            product.setQuantity(pending);
+        }
+        return product;
+    }
+}
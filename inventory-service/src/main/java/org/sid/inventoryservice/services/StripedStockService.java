@@ -0,0 +1,223 @@
+package org.sid.inventoryservice.services;
+
+import lombok.extern.slf4j.Slf4j;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.entities.StockShard;
+import org.sid.inventoryservice.events.ProductChangedEvent;
+import org.sid.inventoryservice.records.ShardCount;
+import org.sid.inventoryservice.repository.ProductRepository;
+import org.sid.inventoryservice.repository.StockShardRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stock d'un produit très sollicité réparti sur N lignes {@code stock_shard} : les réservations
+ * concurrentes se répartissent sur N verrous de ligne au lieu d'un seul. {@code Product.quantity}
+ * devient une vue, recalculée périodiquement à partir de la somme des shards.
+ */
+@Service
+@Slf4j
+public class StripedStockService {
+
+    private final StockShardRepository stockShardRepository;
+    private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int maxShards;
+    // Nombre de shards par produit ; la colonne Product.stockShards reste la référence
+    private final Map<Long, Integer> shardCounts = new ConcurrentHashMap<>();
+
+    public StripedStockService(StockShardRepository stockShardRepository,
+                               ProductRepository productRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${inventory.stock.striping.max-shards:64}") int maxShards) {
+        this.stockShardRepository = stockShardRepository;
+        this.productRepository = productRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxShards = maxShards;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        for (ShardCount count : stockShardRepository.countShards()) {
+            shardCounts.put(count.productId(), (int) count.shards());
+        }
+        log.info("Loaded stock shards for {} products", shardCounts.size());
+    }
+
+    public boolean isStriped(Long productId) {
+        return shardCounts.containsKey(productId);
+    }
+
+    /**
+     * Aligne le cache local sur la valeur lue en base et indique si le produit est réparti.
+     */
+    public boolean sync(Long productId, int shards) {
+        if (shards > 0) {
+            shardCounts.put(productId, shards);
+        } else {
+            shardCounts.remove(productId);
+        }
+        return shards > 0;
+    }
+
+    /**
+     * Répartit le stock courant du produit sur {@code shards} lignes. Doit être appelé dans une transaction.
+     */
+    public Product enable(Long productId, int shards) {
+        if (shards < 1 || shards > maxShards) {
+            throw new RuntimeException("Shard count must be between 1 and " + maxShards);
+        }
+        // Le verrou produit fait attendre les réservations en cours ; elles échoueront ensuite
+        // sur la condition stockShards = 0 et repasseront par les shards
+        Product product = productRepository.lockById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+        // Re-répartition : les shards sont verrouillés avant la somme, une réservation en cours sur
+        // un shard est donc validée avant la lecture et ne peut plus être effacée par deleteShards
+        int quantity = product.getStockShards() > 0
+                ? lockedShardSum(productId)
+                : product.getQuantity();
+
+        stockShardRepository.deleteShards(productId);
+        stockShardRepository.saveAll(split(productId, quantity, shards));
+        product = productRepository.lockById(productId).orElseThrow();
+        product.setQuantity(quantity);
+        product.setStockShards(shards);
+        Product saved = productRepository.saveAndFlush(product);
+        shardCounts.put(productId, shards);
+        log.info("Product {} stock split across {} shards", productId, shards);
+        return saved;
+    }
+
+    /**
+     * Replie les shards dans la ligne produit. Doit être appelé dans une transaction.
+     */
+    public Product disable(Long productId) {
+        Product product = productRepository.lockById(productId)
+                .orElseThrow(() -> new RuntimeException("Product not found with id: " + productId));
+        if (product.getStockShards() == 0) {
+            shardCounts.remove(productId);
+            return product;
+        }
+        int quantity = lockedShardSum(productId);
+        stockShardRepository.deleteShards(productId);
+
+        product = productRepository.lockById(productId).orElseThrow();
+        product.setQuantity(quantity);
+        product.setStockShards(0);
+        Product saved = productRepository.saveAndFlush(product);
+        shardCounts.remove(productId);
+        log.info("Product {} stock folded back from shards", productId);
+        return saved;
+    }
+
+    private int lockedShardSum(Long productId) {
+        stockShardRepository.lockShards(productId);
+        return (int) stockShardRepository.sumQuantity(productId);
+    }
+
+    /**
+     * Répartit une nouvelle quantité absolue sur les shards existants. Doit être appelé dans une transaction.
+     */
+    public void redistribute(Long productId, int quantity) {
+        List<StockShard> shards = stockShardRepository.lockShards(productId);
+        List<StockShard> target = split(productId, quantity, shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            shards.get(i).setQuantity(target.get(i).getQuantity());
+        }
+        stockShardRepository.saveAllAndFlush(shards);
+    }
+
+    public void drop(Long productId) {
+        stockShardRepository.deleteShards(productId);
+        shardCounts.remove(productId);
+    }
+
+    /**
+     * Décrémente un shard tiré au hasard, puis ses voisins. Si aucun shard ne suffit seul, la
+     * quantité est prélevée sur plusieurs shards par index croissant, ce qui évite les interblocages.
+     */
+    public boolean reserve(Long productId, int quantity) {
+        Integer shards = shardCounts.get(productId);
+        if (shards == null) {
+            return false;
+        }
+        int start = ThreadLocalRandom.current().nextInt(shards);
+        for (int i = 0; i < shards; i++) {
+            if (stockShardRepository.take(productId, (start + i) % shards, quantity) == 1) {
+                return true;
+            }
+        }
+
+        List<StockShard> current = stockShardRepository.findByProductIdOrderByShard(productId);
+        if (current.stream().mapToInt(StockShard::getQuantity).sum() < quantity) {
+            return false;
+        }
+        int remaining = quantity;
+        Map<Integer, Integer> taken = new LinkedHashMap<>();
+        for (StockShard shard : current) {
+            int n = Math.min(shard.getQuantity(), remaining);
+            if (n > 0 && stockShardRepository.take(productId, shard.getShard(), n) == 1) {
+                taken.put(shard.getShard(), n);
+                remaining -= n;
+            }
+            if (remaining == 0) {
+                return true;
+            }
+        }
+        // Course perdue contre d'autres réservations : on rend ce qui a été prélevé
+        taken.forEach((shard, n) -> stockShardRepository.put(productId, shard, n));
+        return false;
+    }
+
+    public boolean release(Long productId, int quantity) {
+        Integer shards = shardCounts.get(productId);
+        return shards != null
+                && stockShardRepository.put(productId, ThreadLocalRandom.current().nextInt(shards), quantity) == 1;
+    }
+
+    public long available(Long productId) {
+        return stockShardRepository.sumQuantity(productId);
+    }
+
+    /**
+     * Reporte la somme des shards dans {@code Product.quantity} pour les lectures, le COUNT des
+     * stocks faibles et l'agrégat de valeur du stock.
+     */
+    @Scheduled(fixedDelayString = "${inventory.stock.striping.reconcile-interval-ms:1000}")
+    public void reconcile() {
+        for (Long productId : new ArrayList<>(shardCounts.keySet())) {
+            transactionTemplate.executeWithoutResult(status -> {
+                int quantity = (int) stockShardRepository.sumQuantity(productId);
+                if (productRepository.reconcileQuantity(productId, quantity) == 1) {
+                    productRepository.findStockSnapshot(productId).ifPresent(s -> eventPublisher.publishEvent(
+                            ProductChangedEvent.updated(productId, s.version(), s.name())));
+                }
+            });
+        }
+    }
+
+    private static List<StockShard> split(Long productId, int quantity, int shards) {
+        List<StockShard> result = new ArrayList<>(shards);
+        for (int i = 0; i < shards; i++) {
+            int share = quantity / shards + (i < quantity % shards ? 1 : 0);
+            result.add(StockShard.builder().productId(productId).shard(i).quantity(share).build());
+        }
+        return result;
+    }
+}
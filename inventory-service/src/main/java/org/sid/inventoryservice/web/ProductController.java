@@ -1,18 +1,36 @@
 package org.sid.inventoryservice.web;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.events.ProductChangeFeed;
 import org.sid.inventoryservice.mappers.PagedResponseMapper;
+import org.sid.inventoryservice.records.BatchResult;
 import org.sid.inventoryservice.records.PagedResponse;
+import org.sid.inventoryservice.records.ProductChangeBatch;
+import org.sid.inventoryservice.records.StockLine;
+import org.sid.inventoryservice.records.StockResult;
 import org.sid.inventoryservice.services.ProductService;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/products")
@@ -23,16 +41,34 @@ public class ProductController {
 
     private final ProductService productService;
     private final PagedResponseMapper pagedResponseMapper;
+    private final ProductChangeFeed productChangeFeed;
+    private final ObjectMapper objectMapper;
+
+    private static final int EXPORT_FLUSH_EVERY = 500;
 
     @GetMapping
     public ResponseEntity<PagedResponse<Product>> getAllProducts(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "true") boolean includeTotals) {
 
-        log.info("GET /api/products?page={}&size={}", page, size);
+        log.info("GET /api/products?page={}&size={}&cursor={}", page, size, cursor);
 
         try {
-            Page<Product> productsPage = productService.getAllProducts(page, size);
+            if (cursor != null) {
+                // Mode keyset : pas de COUNT, recherche par index à partir du dernier id
+                Long afterId;
+                try {
+                    afterId = cursor.isEmpty() ? null : Long.valueOf(pagedResponseMapper.decodeCursor(cursor));
+                } catch (IllegalArgumentException e) {
+                    log.warn("Invalid cursor: {}", cursor);
+                    return ResponseEntity.badRequest().build();
+                }
+                Slice<Product> slice = productService.getProductsAfter(afterId, size);
+                return ResponseEntity.ok(pagedResponseMapper.toCursorResponse(slice, Product::getId));
+            }
+            Slice<Product> productsPage = productService.getAllProducts(page, size, includeTotals);
             PagedResponse<Product> response = pagedResponseMapper.toPagedResponse(productsPage);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -55,13 +91,45 @@ public class ProductController {
         }
     }
 
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportProducts(HttpServletResponse response) throws IOException {
+        log.info("GET /api/products/export");
+
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        try (SequenceWriter writer = objectMapper.writer()
+                .withRootValueSeparator("\n")
+                .writeValues(response.getOutputStream())) {
+            int[] written = {0};
+            productService.exportProducts(product -> {
+                try {
+                    writer.write(product);
+                    if (++written[0] % EXPORT_FLUSH_EVERY == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            log.info("Exported {} products", written[0]);
+        } catch (UncheckedIOException e) {
+            log.warn("Product export aborted: {}", e.getMessage());
+        }
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
+    public ResponseEntity<Product> getProductById(@PathVariable Long id, WebRequest request) {
         log.info("GET /api/products/{}", id);
 
         try {
+            // If-None-Match : la version suffit, le produit n'est ni chargé ni sérialisé s'il n'a pas changé
+            if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+                Optional<String> etag = productService.getProductETag(id);
+                if (etag.isPresent() && request.checkNotModified(etag.get())) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+                }
+            }
             Product product = productService.getProductById(id);
-            return ResponseEntity.ok(product);
+            return ResponseEntity.ok().eTag(productService.productETag(product)).body(product);
         } catch (RuntimeException e) {
             log.warn("Product not found with id: {}", id);
             return ResponseEntity.notFound().build();
@@ -71,6 +139,49 @@ public class ProductController {
         }
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<List<Product>> getProductsByIds(@RequestBody Set<Long> ids) {
+        log.info("POST /api/products/bulk - Fetching {} products", ids.size());
+
+        try {
+            List<Product> products = productService.getProductsByIds(ids);
+            return ResponseEntity.ok(products);
+        } catch (Exception e) {
+            log.error("Error fetching products by ids", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * {@code cursor=<instanceId>:<sequence>}, répété pour chaque instance déjà suivie par le consommateur ;
+     * sans curseur, {@code since} s'applique quelle que soit l'instance qui répond.
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ProductChangeBatch> getProductChanges(
+            @RequestParam(defaultValue = "-1") long since,
+            @RequestParam(required = false) List<String> cursor,
+            @RequestParam(defaultValue = "1000") int limit) {
+
+        log.debug("GET /api/products/changes?since={}&cursor={}&limit={}", since, cursor, limit);
+        if (cursor == null || cursor.isEmpty()) {
+            return ResponseEntity.ok(productChangeFeed.changesSince(since, limit));
+        }
+        Map<String, Long> cursors = new HashMap<>();
+        for (String value : cursor) {
+            int separator = value.lastIndexOf(':');
+            if (separator <= 0) {
+                return ResponseEntity.badRequest().build();
+            }
+            try {
+                cursors.put(value.substring(0, separator), Long.parseLong(value.substring(separator + 1)));
+            } catch (NumberFormatException e) {
+                log.warn("Invalid change feed cursor: {}", value);
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        return ResponseEntity.ok(productChangeFeed.changesSince(cursors, limit));
+    }
+
     @GetMapping("/name/{name}")
     public ResponseEntity<Product> getProductByName(@PathVariable String name) {
         log.info("GET /api/products/name/{}", name);
@@ -91,12 +202,13 @@ public class ProductController {
     public ResponseEntity<PagedResponse<Product>> searchProductsByName(
             @RequestParam String name,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") boolean includeTotals) {
 
         log.info("GET /api/products/search?name={}&page={}&size={}", name, page, size);
 
         try {
-            Page<Product> productsPage = productService.searchProductsByName(name, page, size);
+            Slice<Product> productsPage = productService.searchProductsByName(name, page, size, includeTotals);
             PagedResponse<Product> response = pagedResponseMapper.toPagedResponse(productsPage);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -110,13 +222,14 @@ public class ProductController {
             @RequestParam double minPrice,
             @RequestParam double maxPrice,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") boolean includeTotals) {
 
         log.info("GET /api/products/price-range?minPrice={}&maxPrice={}&page={}&size={}",
                 minPrice, maxPrice, page, size);
 
         try {
-            Page<Product> productsPage = productService.getProductsByPriceRange(minPrice, maxPrice, page, size);
+            Slice<Product> productsPage = productService.getProductsByPriceRange(minPrice, maxPrice, page, size, includeTotals);
             PagedResponse<Product> response = pagedResponseMapper.toPagedResponse(productsPage);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -129,12 +242,13 @@ public class ProductController {
     public ResponseEntity<PagedResponse<Product>> getLowStockProducts(
             @RequestParam(defaultValue = "5") int threshold,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") boolean includeTotals) {
 
         log.info("GET /api/products/low-stock?threshold={}&page={}&size={}", threshold, page, size);
 
         try {
-            Page<Product> productsPage = productService.getLowStockProducts(threshold, page, size);
+            Slice<Product> productsPage = productService.getLowStockProducts(threshold, page, size, includeTotals);
             PagedResponse<Product> response = pagedResponseMapper.toPagedResponse(productsPage);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
@@ -159,6 +273,22 @@ public class ProductController {
         }
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResult> createProducts(@RequestBody List<Product> products) {
+        log.info("POST /api/products/batch - Creating {} products", products.size());
+
+        try {
+            BatchResult result = productService.saveProducts(products);
+            return ResponseEntity.status(HttpStatus.CREATED).body(result);
+        } catch (RuntimeException e) {
+            log.warn("Error creating products batch: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error creating products batch", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<Product> updateProduct(
             @PathVariable Long id,
@@ -187,8 +317,7 @@ public class ProductController {
         log.info("PATCH /api/products/{}/quantity - Updating quantity to {}", id, quantity);
 
         try {
-            productService.updateProductQuantity(id, quantity);
-            Product updatedProduct = productService.getProductById(id);
+            Product updatedProduct = productService.updateProductQuantity(id, quantity);
             return ResponseEntity.ok(updatedProduct);
         } catch (RuntimeException e) {
             log.warn("Error updating product quantity: {}", e.getMessage());
@@ -199,6 +328,113 @@ public class ProductController {
         }
     }
 
+    @PostMapping("/{id}/reserve")
+    public ResponseEntity<StockResult> reserveStock(
+            @PathVariable Long id,
+            @RequestBody Map<String, Integer> request) {
+
+        Integer quantity = request.get("quantity");
+        log.info("POST /api/products/{}/reserve - Reserving {}", id, quantity);
+
+        try {
+            StockResult result = productService.reserveStock(id, quantity != null ? quantity : 0);
+            return ResponseEntity.status(stockStatus(result)).body(result);
+        } catch (Exception e) {
+            log.error("Error reserving stock for product with id: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @PostMapping("/reserve")
+    public ResponseEntity<List<StockResult>> reserveStock(
+            @RequestBody List<StockLine> lines,
+            @RequestParam(defaultValue = "false") boolean allOrNothing) {
+
+        log.info("POST /api/products/reserve - Reserving {} lines", lines.size());
+
+        try {
+            return ResponseEntity.ok(productService.reserveStock(lines, allOrNothing));
+        } catch (Exception e) {
+            log.error("Error reserving stock", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @PostMapping("/{id}/release")
+    public ResponseEntity<StockResult> releaseStock(
+            @PathVariable Long id,
+            @RequestBody Map<String, Integer> request) {
+
+        Integer quantity = request.get("quantity");
+        log.info("POST /api/products/{}/release - Releasing {}", id, quantity);
+
+        try {
+            StockResult result = productService.releaseStock(id, quantity != null ? quantity : 0);
+            return ResponseEntity.status(stockStatus(result)).body(result);
+        } catch (Exception e) {
+            log.error("Error releasing stock for product with id: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    // Requête invalide : 400 ; produit inconnu : 404 ; stock insuffisant ou course perdue : 409
+    private static HttpStatus stockStatus(StockResult result) {
+        if (result.success()) {
+            return HttpStatus.OK;
+        }
+        return switch (result.failure()) {
+            case INVALID -> HttpStatus.BAD_REQUEST;
+            case NOT_FOUND -> HttpStatus.NOT_FOUND;
+            case CONFLICT -> HttpStatus.CONFLICT;
+        };
+    }
+
+    @PostMapping("/release")
+    public ResponseEntity<List<StockResult>> releaseStock(@RequestBody List<StockLine> lines) {
+        log.info("POST /api/products/release - Releasing {} lines", lines.size());
+
+        try {
+            return ResponseEntity.ok(productService.releaseStock(lines));
+        } catch (Exception e) {
+            log.error("Error releasing stock", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @PutMapping("/{id}/stock-shards")
+    public ResponseEntity<Product> enableStockShards(
+            @PathVariable Long id,
+            @RequestBody Map<String, Integer> request) {
+
+        Integer shards = request.get("shards");
+        log.info("PUT /api/products/{}/stock-shards - Splitting stock across {} shards", id, shards);
+
+        try {
+            return ResponseEntity.ok(productService.enableStockShards(id, shards != null ? shards : 0));
+        } catch (RuntimeException e) {
+            log.warn("Error enabling stock shards: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error enabling stock shards for product with id: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @DeleteMapping("/{id}/stock-shards")
+    public ResponseEntity<Product> disableStockShards(@PathVariable Long id) {
+        log.info("DELETE /api/products/{}/stock-shards", id);
+
+        try {
+            return ResponseEntity.ok(productService.disableStockShards(id));
+        } catch (RuntimeException e) {
+            log.warn("Error disabling stock shards: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            log.error("Error disabling stock shards for product with id: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id) {
         log.info("DELETE /api/products/{}", id);
@@ -0,0 +1,110 @@
+package org.sid.inventoryservice.web;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.mappers.PagedResponseMapper;
+import org.sid.inventoryservice.records.PagedResponse;
+import org.sid.inventoryservice.services.ReactiveProductService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Variante non bloquante des lectures de {@link ProductController}, mêmes paramètres et mêmes réponses.
+ * Le thread Tomcat est rendu dès que la requête R2DBC est lancée ; la réponse est écrite à son
+ * achèvement (traitement asynchrone de Spring MVC).
+ */
+@RestController
+@ConditionalOnProperty(name = "inventory.reactive.enabled", havingValue = "true")
+@RequestMapping("/api/products/reactive")
+@CrossOrigin("*")
+@RequiredArgsConstructor
+@Slf4j
+public class ReactiveProductController {
+
+    private final ReactiveProductService reactiveProductService;
+    private final PagedResponseMapper pagedResponseMapper;
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Product>> getProductById(@PathVariable Long id) {
+        log.debug("GET /api/products/reactive/{}", id);
+
+        return reactiveProductService.getProductById(id)
+                .map(ResponseEntity::ok)
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    log.warn("Product not found with id: {}", id);
+                    return ResponseEntity.notFound().build();
+                }))
+                .onErrorResume(e -> {
+                    log.error("Error fetching product with id: {}", id, e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+                });
+    }
+
+    @PostMapping("/bulk")
+    public Mono<ResponseEntity<List<Product>>> getProductsByIds(@RequestBody Set<Long> ids) {
+        log.debug("POST /api/products/reactive/bulk - Fetching {} products", ids.size());
+
+        return reactiveProductService.getProductsByIds(ids)
+                .collectList()
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> {
+                    log.error("Error fetching products by ids", e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+                });
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<PagedResponse<Product>>> searchProductsByName(
+            @RequestParam String name,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") boolean includeTotals) {
+
+        log.debug("GET /api/products/reactive/search?name={}&page={}&size={}", name, page, size);
+        return toResponse(reactiveProductService.searchProductsByName(name, page, size, includeTotals),
+                "Error searching products");
+    }
+
+    @GetMapping("/price-range")
+    public Mono<ResponseEntity<PagedResponse<Product>>> getProductsByPriceRange(
+            @RequestParam double minPrice,
+            @RequestParam double maxPrice,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") boolean includeTotals) {
+
+        log.debug("GET /api/products/reactive/price-range?minPrice={}&maxPrice={}&page={}&size={}",
+                minPrice, maxPrice, page, size);
+        return toResponse(reactiveProductService.getProductsByPriceRange(minPrice, maxPrice, page, size, includeTotals),
+                "Error fetching products by price range");
+    }
+
+    @GetMapping("/low-stock")
+    public Mono<ResponseEntity<PagedResponse<Product>>> getLowStockProducts(
+            @RequestParam(defaultValue = "5") int threshold,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") boolean includeTotals) {
+
+        log.debug("GET /api/products/reactive/low-stock?threshold={}&page={}&size={}", threshold, page, size);
+        return toResponse(reactiveProductService.getLowStockProducts(threshold, page, size, includeTotals),
+                "Error fetching low stock products");
+    }
+
+    private Mono<ResponseEntity<PagedResponse<Product>>> toResponse(Mono<Slice<Product>> slice, String error) {
+        return slice.map(pagedResponseMapper::toPagedResponse)
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> {
+                    log.error(error, e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+                });
+    }
+}
@@ -3,18 +3,32 @@ package org.sid.inventoryservice;
 import org.junit.jupiter.api.Test;
 import org.sid.inventoryservice.entities.Product;
 import org.sid.inventoryservice.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.r2dbc.core.DatabaseClient;
 
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 @SpringBootTest
 class InventoryServiceApplicationTests {
 
+    @Autowired
+    private ApplicationContext context;
+
     @Test
     void contextLoads() {
     }
 
+    @Test
+    void reactiveReadsAreOffByDefault() {
+        // Pas de second pool de connexions (R2DBC) sans inventory.reactive.enabled=true
+        assertEquals(0, context.getBeanNamesForType(DatabaseClient.class).length);
+    }
+
 
 }
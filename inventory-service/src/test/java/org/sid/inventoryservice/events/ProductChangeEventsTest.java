@@ -0,0 +1,109 @@
+package org.sid.inventoryservice.events;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.records.ProductChangeBatch;
+import org.sid.inventoryservice.repository.ProductRepository;
+import org.sid.inventoryservice.services.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProductChangeEventsTest {
+
+    @TestConfiguration
+    static class RecordingSubscriberConfig {
+        @Bean
+        RecordingSubscriber recordingSubscriber() {
+            return new RecordingSubscriber();
+        }
+    }
+
+    static class RecordingSubscriber implements ProductChangeSubscriber {
+        final List<ProductChangedEvent> events = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onProductChanged(ProductChangedEvent event) {
+            events.add(event);
+        }
+    }
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private RecordingSubscriber subscriber;
+    @Autowired
+    private ProductChangeFeed productChangeFeed;
+
+    @BeforeEach
+    void reset() {
+        subscriber.events.clear();
+    }
+
+    @Test
+    void mutationsArePublishedWithIncreasingVersions() {
+        Product product = productRepository.save(Product.builder().name("Events-" + System.nanoTime()).price(10).quantity(5).build());
+        long since = productChangeFeed.changesSince(-1, 1).latestSequence();
+
+        productService.updateProductQuantity(product.getId(), 7);
+        productService.updateProduct(product.getId(), Product.builder().name(product.getName()).price(12).quantity(7).build());
+        productService.deleteProduct(product.getId());
+
+        List<ProductChangedEvent> events = subscriber.events;
+        assertEquals(3, events.size());
+        assertTrue(events.stream().allMatch(e -> e.productId().equals(product.getId())));
+        assertTrue(events.get(1).version() > events.get(0).version());
+        assertEquals(ProductChangedEvent.ChangeType.DELETED, events.get(2).type());
+
+        ProductChangeBatch batch = productChangeFeed.changesSince(since, 100);
+        assertFalse(batch.truncated());
+        assertEquals(3, batch.changes().size());
+        assertEquals(since + 3, batch.latestSequence());
+    }
+
+    @Test
+    void failedMutationPublishesNothing() {
+        assertThrows(RuntimeException.class, () -> productService.updateProductQuantity(Long.MAX_VALUE, 1));
+        assertTrue(subscriber.events.isEmpty());
+    }
+
+    @Test
+    void feedReportsTruncationWhenConsumerIsAhead() {
+        ProductChangeFeed feed = new ProductChangeFeed(2);
+        feed.publish(ProductChangedEvent.updated(1L, 1L, "p"));
+        feed.publish(ProductChangedEvent.updated(1L, 2L, "p"));
+        feed.publish(ProductChangedEvent.updated(1L, 3L, "p"));
+
+        assertTrue(feed.changesSince(0, 10).truncated());
+        assertTrue(feed.changesSince(10, 10).truncated());
+        assertEquals(2, feed.changesSince(1, 10).changes().size());
+    }
+
+    @Test
+    void cursorOfAnotherInstanceIsIgnored() {
+        ProductChangeFeed feed = new ProductChangeFeed(10);
+        feed.publish(ProductChangedEvent.updated(1L, 1L, "p"));
+        feed.publish(ProductChangedEvent.updated(2L, 1L, "q"));
+
+        // Séquence 1 d'une autre instance : ne vaut pas curseur ici, réponse d'un premier contact
+        ProductChangeBatch other = feed.changesSince(Map.of("other-instance", 1L), 10);
+        assertEquals(feed.instanceId(), other.instanceId());
+        assertTrue(other.changes().isEmpty());
+        assertEquals(2, other.latestSequence());
+
+        ProductChangeBatch own = feed.changesSince(Map.of("other-instance", 2L, feed.instanceId(), 1L), 10);
+        assertEquals(1, own.changes().size());
+        assertEquals(2L, own.changes().get(0).productId());
+    }
+}
@@ -0,0 +1,102 @@
+package org.sid.inventoryservice.search;
+
+import org.junit.jupiter.api.Test;
+import org.sid.inventoryservice.events.ProductChangedEvent;
+import org.sid.inventoryservice.repository.ProductRepository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductNameIndexTest {
+
+    private final ProductNameIndex index = new ProductNameIndex(mock(ProductRepository.class), true);
+
+    @Test
+    void ranksExactThenPrefixThenWordPrefixThenSubstring() {
+        index.put(1L, "Smartphone case");
+        index.put(2L, "Phone");
+        index.put(3L, "Phone charger");
+        index.put(4L, "Desk phone");
+        index.put(5L, "Laptop");
+
+        ProductNameIndex.SearchResult result = index.search("PHONE", 0, 10);
+
+        assertEquals(List.of(2L, 3L, 4L, 1L), result.ids());
+        assertEquals(4, result.total());
+    }
+
+    @Test
+    void pagesThroughMatches() {
+        for (long id = 1; id <= 25; id++) {
+            index.put(id, "cable " + id);
+        }
+
+        assertEquals(25, index.search("able", 20, 10).total());
+        assertEquals(5, index.search("able", 20, 10).ids().size());
+    }
+
+    @Test
+    void updatesAndDeletesAreVisible() {
+        index.put(1L, "Tablet");
+        index.put(1L, "Monitor");
+        index.put(2L, "Tablet stand");
+        index.remove(2L);
+
+        assertEquals(0, index.search("tablet", 0, 10).total());
+        assertEquals(List.of(1L), index.search("nit", 0, 10).ids());
+    }
+
+    @Test
+    void shortQueriesAndCompactionStillMatch() {
+        for (long id = 1; id <= 5000; id++) {
+            index.put(id, "item " + id);
+        }
+        for (long id = 1; id <= 4000; id++) {
+            index.remove(id);
+        }
+
+        assertEquals(1000, index.search("item", 0, 10).total());
+        assertEquals(List.of(4999L), index.search("4999", 0, 10).ids());
+        assertEquals(1000, index.search("it", 0, 10).total());
+    }
+
+    @Test
+    void changesPublishedDuringRebuildAreReplayed() {
+        ProductRepository repository = mock(ProductRepository.class);
+        ProductNameIndex rebuilding = new ProductNameIndex(repository, true);
+        when(repository.streamNames()).thenAnswer(invocation -> {
+            // Écritures validées pendant la lecture de la table, absentes de l'instantané
+            rebuilding.onProductChanged(ProductChangedEvent.created(3L, 0L, "Keyboard"));
+            rebuilding.onProductChanged(ProductChangedEvent.updated(1L, 1L, "Mouse pad"));
+            rebuilding.onProductChanged(ProductChangedEvent.deleted(2L));
+            return Stream.of(new ProductNameEntry(1L, "Mouse"), new ProductNameEntry(2L, "Webcam"));
+        });
+
+        rebuilding.rebuild();
+
+        assertTrue(rebuilding.isReady());
+        assertEquals(List.of(3L), rebuilding.search("keyboard", 0, 10).ids());
+        assertEquals(List.of(1L), rebuilding.search("mouse pad", 0, 10).ids());
+        assertEquals(0, rebuilding.search("webcam", 0, 10).total());
+    }
+
+    @Test
+    void resyncPicksUpWritesOfOtherInstances() {
+        ProductRepository repository = mock(ProductRepository.class);
+        ProductNameIndex resynced = new ProductNameIndex(repository, true);
+        when(repository.streamNames())
+                .thenAnswer(invocation -> Stream.of(new ProductNameEntry(1L, "Speaker")))
+                .thenAnswer(invocation -> Stream.of(new ProductNameEntry(1L, "Speaker"), new ProductNameEntry(2L, "Headset")));
+
+        resynced.rebuild();
+        assertEquals(0, resynced.search("headset", 0, 10).total());
+
+        resynced.rebuild();
+        assertEquals(List.of(2L), resynced.search("headset", 0, 10).ids());
+    }
+}
@@ -0,0 +1,80 @@
+package org.sid.inventoryservice.search;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.sid.inventoryservice.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compare l'index de trigrammes et la requête JPA {@code lower(name) like '%x%'}.
+ * Lancement : mvn test -Dbenchmark=true [-Dbenchmark.rows=1000000]
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:search-bench;OPTIMIZE_REUSE_RESULTS=FALSE",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductSearchBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+    private static final String[] WORDS = {"laptop", "phone", "tablet", "cable", "charger", "monitor", "desk",
+            "keyboard", "mouse", "speaker", "camera", "printer", "router", "headset", "watch", "battery"};
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ProductNameIndex productNameIndex;
+
+    @BeforeAll
+    void populate() {
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            String name = WORDS[i % WORDS.length] + " " + WORDS[(i / WORDS.length) % WORDS.length] + " " + Integer.toString(i, 36);
+            batch.add(new Object[]{name, i % 1000, i % 50});
+            if (batch.size() == 10_000 || i == ROWS - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO product (id, name, price, quantity, version) VALUES (NEXT VALUE FOR product_seq, ?, ?, ?, 0)", batch);
+                batch.clear();
+            }
+        }
+        long start = System.nanoTime();
+        productNameIndex.rebuild();
+        System.out.printf("[benchmark] index build rows=%d %.0f ms%n", ROWS, (System.nanoTime() - start) / 1e6);
+    }
+
+    @Test
+    void compareIndexAndJpa() {
+        for (String query : new String[]{"zz9", "monitor desk", "rint", "ph"}) {
+            long jpa = measure("jpa", query, () -> productRepository
+                    .findByNameContainingIgnoreCase(query, PageRequest.of(0, 20)).getTotalElements());
+            long index = measure("index", query, () -> productNameIndex.search(query, 0, 20).total());
+            assertEquals(jpa, index);
+        }
+    }
+
+    private static long measure(String label, String query, LongSupplier supplier) {
+        long result = supplier.getAsLong();
+        int runs = 5;
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            result = supplier.getAsLong();
+        }
+        System.out.printf("[benchmark] %-5s query=%-14s matches=%-7d avg=%.3f ms%n", label, "'" + query + "'", result,
+                (System.nanoTime() - start) / 1e6 / runs);
+        return result;
+    }
+}
@@ -0,0 +1,50 @@
+package org.sid.inventoryservice.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountCacheTest {
+
+    private final CountCache countCache = new CountCache(Duration.ofMinutes(1), 100);
+    private final AtomicInteger queries = new AtomicInteger();
+
+    @Test
+    void countIsCachedUntilInvalidated() {
+        assertEquals(5, countCache.get("all", () -> count(5)));
+        assertEquals(5, countCache.get("all", () -> count(6)));
+        assertEquals(1, queries.get());
+
+        countCache.invalidateAll();
+        assertEquals(6, countCache.get("all", () -> count(6)));
+    }
+
+    @Test
+    void countStartedBeforeInvalidationIsNotCached() {
+        // Le vidage survient pendant que le COUNT s'exécute
+        assertEquals(5, countCache.get("all", () -> {
+            countCache.invalidateAll();
+            return count(5);
+        }));
+        assertEquals(6, countCache.get("all", () -> count(6)));
+    }
+
+    @Test
+    void asynchronousCountStartedBeforeInvalidationIsNotCached() {
+        long started = countCache.generation();
+        countCache.invalidateAll();
+        countCache.put("all", 5, started);
+        assertTrue(countCache.peek("all").isEmpty());
+
+        countCache.put("all", 6, countCache.generation());
+        assertEquals(6, countCache.peek("all").orElseThrow());
+    }
+
+    private long count(long value) {
+        queries.incrementAndGet();
+        return value;
+    }
+}
@@ -0,0 +1,89 @@
+package org.sid.inventoryservice.services;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.sid.inventoryservice.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compare le calcul de la valeur du stock : scan complet (ancienne implémentation),
+ * agrégat SQL et compteur maintenu. Lancement : mvn test -Dbenchmark=true [-Dbenchmark.rows=1000000]
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:inventory-value-bench",
+        "inventory.value.mode=counter",
+        "eureka.client.enabled=false"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class InventoryValueBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 1_000_000);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private InventoryValueTracker inventoryValueTracker;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    void populate() {
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(new Object[]{"bench-" + i, (i % 1000) + 0.5, i % 50});
+            if (batch.size() == 10_000) {
+                jdbcTemplate.batchUpdate("INSERT INTO product (id, name, price, quantity, version) VALUES (NEXT VALUE FOR product_seq, ?, ?, ?, 0)", batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate("INSERT INTO product (id, name, price, quantity, version) VALUES (NEXT VALUE FOR product_seq, ?, ?, ?, 0)", batch);
+        }
+    }
+
+    @Test
+    void compareModes() {
+        long fullScan = measure("full scan", () -> transactionTemplate.execute(status ->
+                productRepository.findAll().stream()
+                        .mapToDouble(p -> p.getPrice() * p.getQuantity())
+                        .sum()).longValue());
+        long aggregate = measure("aggregate", () -> productRepository.getTotalInventoryValue().longValue());
+        inventoryValueTracker.current();
+        long counter = measure("counter", inventoryValueTracker::current);
+
+        assertEquals(fullScan, aggregate, 1);
+        assertEquals(aggregate, counter, 1);
+    }
+
+    private static long measure(String label, LongSupplier supplier) {
+        long result = 0;
+        long first = 0;
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            result = supplier.getAsLong();
+            long elapsed = System.nanoTime() - start;
+            if (i == 0) {
+                first = elapsed;
+            }
+            best = Math.min(best, elapsed);
+        }
+        // H2 peut réutiliser le résultat d'une requête identique : le premier passage fait foi
+        System.out.printf("[benchmark] %-10s rows=%d first=%.3f ms best=%.3f ms%n", label, ROWS, first / 1e6, best / 1e6);
+        return result;
+    }
+}
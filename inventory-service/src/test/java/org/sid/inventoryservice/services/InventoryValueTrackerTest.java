@@ -0,0 +1,80 @@
+package org.sid.inventoryservice.services;
+
+import org.junit.jupiter.api.Test;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Resynchronisation du compteur pendant qu'une transaction committe : sa variation n'est comptée qu'une fois.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:inventory-value-tracker",
+        "inventory.value.mode=counter",
+        "inventory.value.counter.max-staleness=2s",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+class InventoryValueTrackerTest {
+
+    @Autowired
+    private InventoryValueTracker inventoryValueTracker;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void resyncBetweenCommitAndDeltaDoesNotDoubleCount() throws Exception {
+        Product product = productRepository.save(Product.builder().name("Tracker-race").price(10).quantity(1).build());
+        long before = inventoryValueTracker.current();
+
+        CountDownLatch committed = new CountDownLatch(1);
+        CountDownLatch resynced = new CountDownLatch(1);
+        // Resynchronisation (compteur périmé) lancée entre le commit et l'application de la variation
+        CompletableFuture<Long> concurrentRead = CompletableFuture.supplyAsync(() -> {
+            try {
+                committed.await();
+                Thread.sleep(2500);
+                return inventoryValueTracker.current();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            } finally {
+                resynced.countDown();
+            }
+        });
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // Enregistrée avant celle du compteur : son afterCommit passe avant l'application de la variation
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    committed.countDown();
+                    try {
+                        resynced.await(4, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            });
+            Product managed = productRepository.findById(product.getId()).orElseThrow();
+            managed.setQuantity(4);
+            productRepository.save(managed);
+            inventoryValueTracker.adjust(managed.getPrice() * 3);
+        });
+
+        assertEquals(before + 30, concurrentRead.get(10, TimeUnit.SECONDS));
+        assertEquals(before + 30, inventoryValueTracker.current());
+    }
+}
@@ -0,0 +1,68 @@
+package org.sid.inventoryservice.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.records.BatchResult;
+import org.sid.inventoryservice.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mesure l'import en masse : un POST unitaire par produit contre l'import groupé
+ * (INSERT batchés, ids pooled). Lancement : mvn test -Dbenchmark=true [-Dbenchmark.rows=100000]
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:product-import-bench",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProductBatchImportBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 100_000);
+    // L'import unitaire est extrapolé à partir d'un échantillon
+    private static final int SINGLE_SAMPLE = 2_000;
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void compareSingleAndBatchImport() {
+        long before = productRepository.count();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < SINGLE_SAMPLE; i++) {
+            productService.saveProduct(product("single-" + i, i));
+        }
+        long singleMs = (System.nanoTime() - start) / 1_000_000;
+
+        List<Product> products = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            products.add(product("batch-" + i, i));
+        }
+        start = System.nanoTime();
+        BatchResult result = productService.saveProducts(products);
+        long batchMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("[benchmark] single inserts: %d ms for %d rows (~%d ms for %d)%n",
+                singleMs, SINGLE_SAMPLE, singleMs * ROWS / SINGLE_SAMPLE, ROWS);
+        System.out.printf("[benchmark] batch import:   %d ms for %d rows%n", batchMs, ROWS);
+
+        assertEquals(ROWS, result.created());
+        assertTrue(result.errors().isEmpty());
+        assertEquals(before + SINGLE_SAMPLE + ROWS, productRepository.count());
+    }
+
+    private static Product product(String name, int i) {
+        return Product.builder().name(name).price((i % 1000) + 0.5).quantity(i % 50).build();
+    }
+}
@@ -0,0 +1,92 @@
+package org.sid.inventoryservice.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.events.ProductChangedEvent;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ProductCache cache = new ProductCache(meterRegistry, true, 100, Duration.ofMinutes(10));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void secondLookupIsServedFromCache() {
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+
+        assertEquals(1, loads.get());
+        assertEquals(0.5, meterRegistry.get("cache.hit.ratio").gauge().value());
+    }
+
+    @Test
+    void callersCannotMutateTheCachedValue() {
+        cache.get(1L, this::load).orElseThrow().setQuantity(999);
+
+        assertEquals(5, cache.get(1L, this::load).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void changeEventEvictsTheEntry() {
+        cache.get(1L, this::load);
+        cache.onProductChanged(ProductChangedEvent.updated(1L, 2L, "p"));
+        cache.get(1L, this::load);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void bulkLookupLoadsOnlyMisses() {
+        cache.get(1L, this::load);
+        List<Long> requested = new ArrayList<>();
+
+        List<Product> products = cache.getAll(List.of(1L, 2L, 3L), missing -> {
+            requested.addAll(missing);
+            return missing.stream().map(ProductCacheTest::product).toList();
+        });
+
+        assertEquals(3, products.size());
+        assertEquals(2, requested.size());
+        assertFalse(requested.contains(1L));
+    }
+
+    @Test
+    void bulkLoadRacingAnEvictionIsNotCached() {
+        // L'éviction après commit passe pendant la requête groupée, qui a lu l'ancienne version
+        List<Product> products = cache.getAll(List.of(1L, 2L), missing -> {
+            List<Product> stale = missing.stream().map(ProductCacheTest::product).toList();
+            cache.onProductChanged(ProductChangedEvent.updated(1L, 2L, "p1"));
+            return stale;
+        });
+
+        assertEquals(2, products.size());
+        assertTrue(cache.cachedVersion(1L).isEmpty());
+        assertEquals(Optional.of(1L), cache.cachedVersion(2L));
+    }
+
+    @Test
+    void missingProductIsNotCached() {
+        assertTrue(cache.get(42L, id -> { loads.incrementAndGet(); return Optional.empty(); }).isEmpty());
+        assertTrue(cache.get(42L, id -> { loads.incrementAndGet(); return Optional.empty(); }).isEmpty());
+
+        assertEquals(2, loads.get());
+    }
+
+    private Optional<Product> load(Long id) {
+        loads.incrementAndGet();
+        return Optional.of(product(id));
+    }
+
+    private static Product product(Long id) {
+        return Product.builder().id(id).name("p" + id).price(1).quantity(5).version(1L).build();
+    }
+}
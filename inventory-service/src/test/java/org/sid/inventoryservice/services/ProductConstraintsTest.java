@@ -0,0 +1,53 @@
+package org.sid.inventoryservice.services;
+
+import org.junit.jupiter.api.Test;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "eureka.client.enabled=false")
+class ProductConstraintsTest {
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void duplicateNameIsRejectedByTheUniqueConstraint() {
+        String name = "Unique-" + System.nanoTime();
+        productService.saveProduct(Product.builder().name(name).price(1).quantity(1).build());
+
+        RuntimeException e = assertThrows(RuntimeException.class,
+                () -> productService.saveProduct(Product.builder().name(name).price(2).quantity(2).build()));
+        assertTrue(e.getMessage().startsWith("Product name already exists"));
+        assertEquals(1, productRepository.countByNameContainingIgnoreCase(name));
+    }
+
+    @Test
+    void renamingToAnExistingNameIsRejected() {
+        String taken = "Taken-" + System.nanoTime();
+        productService.saveProduct(Product.builder().name(taken).price(1).quantity(1).build());
+        Product other = productRepository.save(Product.builder().name("Other-" + System.nanoTime()).price(1).quantity(1).build());
+
+        assertThrows(RuntimeException.class,
+                () -> productService.updateProduct(other.getId(), Product.builder().name(taken).price(1).quantity(1).build()));
+        assertNotEquals(taken, productService.getProductById(other.getId()).getName());
+    }
+
+    @Test
+    void clientSuppliedIdDoesNotOverwriteAnExistingProduct() {
+        Product existing = productRepository.save(Product.builder().name("Kept-" + System.nanoTime()).price(1).quantity(1).build());
+        String name = "Created-" + System.nanoTime();
+
+        Product created = Product.builder().id(existing.getId()).version(existing.getVersion()).name(name).price(2).quantity(2).build();
+        productService.saveProduct(created);
+
+        assertNotEquals(existing.getId(), created.getId());
+        assertEquals(existing.getName(), productRepository.findById(existing.getId()).orElseThrow().getName());
+        assertEquals(name, productRepository.findById(created.getId()).orElseThrow().getName());
+    }
+}
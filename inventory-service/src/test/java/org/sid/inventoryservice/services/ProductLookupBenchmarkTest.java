@@ -0,0 +1,78 @@
+package org.sid.inventoryservice.services;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.sid.inventoryservice.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Lecture par id : base seule (ancien chemin de getProductById) contre cache produits.
+ * Lancement : mvn test -Dbenchmark=true [-Dbenchmark.rows=10000] [-Dbenchmark.lookups=200000]
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:product-lookup-bench;OPTIMIZE_REUSE_RESULTS=FALSE",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductLookupBenchmarkTest {
+
+    private static final int ROWS = Integer.getInteger("benchmark.rows", 10_000);
+    private static final int LOOKUPS = Integer.getInteger("benchmark.lookups", 200_000);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private long[] ids;
+
+    @BeforeAll
+    void populate() {
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            batch.add(new Object[]{"lookup-" + i, (i % 1000) + 0.5, i % 50});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO product (id, name, price, quantity, version) VALUES (NEXT VALUE FOR product_seq, ?, ?, ?, 0)", batch);
+        ids = jdbcTemplate.queryForList("SELECT id FROM product", Long.class).stream().mapToLong(Long::longValue).toArray();
+    }
+
+    @Test
+    void compareDatabaseAndCachedLookups() {
+        // Même distribution d'ids pour les deux passes
+        Random random = new Random(42);
+        long[] sequence = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            sequence[i] = ids[random.nextInt(ids.length)];
+        }
+
+        long start = System.nanoTime();
+        for (long id : sequence) {
+            transactionTemplate.execute(status -> productRepository.findById(id).orElseThrow());
+        }
+        long databaseMs = (System.nanoTime() - start) / 1_000_000;
+
+        start = System.nanoTime();
+        for (long id : sequence) {
+            productService.getProductById(id);
+        }
+        long cachedMs = (System.nanoTime() - start) / 1_000_000;
+
+        System.out.printf("[benchmark] database lookups: %d ms for %d (%d/s)%n", databaseMs, LOOKUPS, LOOKUPS * 1000L / Math.max(1, databaseMs));
+        System.out.printf("[benchmark] cached lookups:   %d ms for %d (%d/s)%n", cachedMs, LOOKUPS, LOOKUPS * 1000L / Math.max(1, cachedMs));
+    }
+}
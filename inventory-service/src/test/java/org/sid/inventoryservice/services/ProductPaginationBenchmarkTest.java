@@ -0,0 +1,72 @@
+package org.sid.inventoryservice.services;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.sid.inventoryservice.entities.Product;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compare la pagination OFFSET (avec COUNT) et la pagination keyset sur des pages profondes.
+ * Lancement : mvn test -Dbenchmark=true [-Dbenchmark.page=10000]
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pagination-bench;OPTIMIZE_REUSE_RESULTS=FALSE",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ProductPaginationBenchmarkTest {
+
+    private static final int SIZE = 10;
+    private static final int PAGE = Integer.getInteger("benchmark.page", 10_000);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ProductService productService;
+
+    @BeforeAll
+    void populate() {
+        int rows = (PAGE + 1) * SIZE;
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{"page-bench-" + i, i % 1000, i % 50});
+            if (batch.size() == 10_000 || i == rows - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO product (id, name, price, quantity, version) VALUES (NEXT VALUE FOR product_seq, ?, ?, ?, 0)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @Test
+    void compareOffsetAndKeyset() {
+        for (int page : new int[]{0, 100, 1_000, PAGE}) {
+            List<Product> offset = measure("offset", page, () -> productService.getAllProducts(page, SIZE).getContent());
+            Long afterId = page == 0 ? null : productService.getAllProducts(page - 1, SIZE).getContent().get(SIZE - 1).getId();
+            List<Product> keyset = measure("keyset", page, () -> productService.getProductsAfter(afterId, SIZE).getContent());
+            assertEquals(offset.stream().map(Product::getId).toList(), keyset.stream().map(Product::getId).toList());
+        }
+    }
+
+    private static List<Product> measure(String label, int page, Supplier<List<Product>> supplier) {
+        List<Product> result = supplier.get();
+        long start = System.nanoTime();
+        int runs = 200;
+        for (int i = 0; i < runs; i++) {
+            result = supplier.get();
+        }
+        System.out.printf("[benchmark] %-6s page=%-6d avg=%.3f ms%n", label, page, (System.nanoTime() - start) / 1e6 / runs);
+        return result;
+    }
+}
@@ -0,0 +1,63 @@
+package org.sid.inventoryservice.services;
+
+import org.junit.jupiter.api.Test;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.doCallRealMethod;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Tampon plein : le flush s'exécute dans la transaction du PATCH, mais dans sa propre transaction.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:quantity-write-buffer-flush",
+        "inventory.quantity.write-behind.enabled=true",
+        "inventory.quantity.write-behind.max-lag-ms=3600000",
+        "inventory.quantity.write-behind.max-pending=1",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=ERROR"
+})
+class QuantityWriteBufferFlushTest {
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private QuantityWriteBuffer quantityWriteBuffer;
+    @Autowired
+    private ProductRepository productRepository;
+    @SpyBean
+    private InventoryValueTracker inventoryValueTracker;
+
+    @Test
+    void failedInlineFlushDoesNotFailTheUpdate() {
+        Long id = productRepository.save(Product.builder().name("Inline-flush").price(10).quantity(1).build()).getId();
+        doThrow(new IllegalStateException("flush failure"))
+                .doCallRealMethod()
+                .when(inventoryValueTracker).adjust(anyDouble());
+
+        // Le flush synchrone échoue : la mise à jour reste acceptée et gardée pour le flush suivant
+        assertEquals(5, productService.updateProductQuantity(id, 5).getQuantity());
+        assertEquals(1, productRepository.findById(id).orElseThrow().getQuantity());
+        assertEquals(5, quantityWriteBuffer.pendingQuantity(id));
+
+        assertEquals(1, quantityWriteBuffer.flush());
+        assertEquals(5, productRepository.findById(id).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void inlineFlushWritesImmediately() {
+        Long id = productRepository.save(Product.builder().name("Inline-flush-ok").price(10).quantity(1).build()).getId();
+        doCallRealMethod().when(inventoryValueTracker).adjust(anyDouble());
+
+        productService.updateProductQuantity(id, 7);
+
+        assertEquals(7, productRepository.findById(id).orElseThrow().getQuantity());
+        assertNull(quantityWriteBuffer.pendingQuantity(id));
+    }
+}
@@ -0,0 +1,102 @@
+package org.sid.inventoryservice.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.records.StockLine;
+import org.sid.inventoryservice.records.StockResult;
+import org.sid.inventoryservice.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:quantity-write-buffer",
+        "inventory.quantity.write-behind.enabled=true",
+        "inventory.quantity.write-behind.max-lag-ms=3600000",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+class QuantityWriteBufferTest {
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private QuantityWriteBuffer quantityWriteBuffer;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void flushLeftovers() {
+        quantityWriteBuffer.flush();
+    }
+
+    @Test
+    void repeatedUpdatesAreCoalescedIntoOneWrite() {
+        Long id = newProduct(1);
+        double writesBefore = meterRegistry.counter("inventory.quantity.buffer.writes").count();
+
+        for (int q = 1; q <= 100; q++) {
+            assertEquals(q, productService.updateProductQuantity(id, q).getQuantity());
+        }
+
+        // Lecture cohérente avec la dernière valeur acceptée, base pas encore écrite
+        assertEquals(100, productService.getProductById(id).getQuantity());
+        assertEquals(1, productRepository.findById(id).orElseThrow().getQuantity());
+
+        assertEquals(1, quantityWriteBuffer.flush());
+        assertEquals(100, productRepository.findById(id).orElseThrow().getQuantity());
+        assertEquals(writesBefore + 1, meterRegistry.counter("inventory.quantity.buffer.writes").count());
+    }
+
+    @Test
+    void reservationAppliesTheBufferedQuantityFirst() {
+        Long id = newProduct(1);
+        productService.updateProductQuantity(id, 10);
+
+        assertTrue(productService.reserveStock(id, 4).success());
+
+        assertEquals(0, quantityWriteBuffer.flush());
+        assertEquals(6, productRepository.findById(id).orElseThrow().getQuantity());
+    }
+
+    @Test
+    void fullUpdateDiscardsTheBufferedQuantity() {
+        Long id = newProduct(1);
+        productService.updateProductQuantity(id, 10);
+
+        productService.updateProduct(id, Product.builder().name("Renamed-" + System.nanoTime()).price(2).quantity(3).build());
+        quantityWriteBuffer.flush();
+
+        assertEquals(3, productService.getProductById(id).getQuantity());
+    }
+
+    @Test
+    void rolledBackReservationKeepsTheBufferedQuantity() {
+        Long id = newProduct(1);
+        productService.updateProductQuantity(id, 10);
+
+        // La seconde ligne échoue : la transaction, qui a retiré la valeur du tampon, est annulée
+        List<StockResult> results = productService.reserveStock(
+                List.of(new StockLine(id, 4), new StockLine(Long.MAX_VALUE, 1)), true);
+        assertFalse(results.get(0).success());
+        assertEquals(10, quantityWriteBuffer.pendingQuantity(id));
+
+        assertEquals(1, quantityWriteBuffer.flush());
+        assertEquals(10, productRepository.findById(id).orElseThrow().getQuantity());
+    }
+
+    private Long newProduct(int quantity) {
+        return productRepository.save(Product.builder()
+                .name("Buffered-" + System.nanoTime())
+                .price(10)
+                .quantity(quantity)
+                .build()).getId();
+    }
+}
@@ -0,0 +1,115 @@
+package org.sid.inventoryservice.services;
+
+import org.junit.jupiter.api.Test;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.records.StockLine;
+import org.sid.inventoryservice.records.StockResult;
+import org.sid.inventoryservice.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stock-reservation;LOCK_TIMEOUT=10000",
+        "spring.datasource.hikari.maximum-pool-size=64",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+class StockReservationTest {
+
+    private static final int THREADS = 64;
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        int stock = 500;
+        Long id = newProduct(stock);
+        AtomicInteger reserved = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 20; i++) {
+                    if (productService.reserveStock(id, 1).success()) {
+                        reserved.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertEquals(stock, reserved.get());
+        assertEquals(0, productService.getProductById(id).getQuantity());
+    }
+
+    @Test
+    void insufficientStockFailsTheLineOnly() {
+        Long a = newProduct(5);
+        Long b = newProduct(1);
+
+        List<StockResult> results = productService.reserveStock(
+                List.of(new StockLine(a, 3), new StockLine(b, 2)), false);
+
+        assertTrue(results.get(0).success());
+        assertEquals(2, results.get(0).remaining());
+        assertFalse(results.get(1).success());
+        assertEquals(1, productService.getProductById(b).getQuantity());
+    }
+
+    @Test
+    void allOrNothingRollsBackReservedLines() {
+        Long a = newProduct(5);
+        Long b = newProduct(1);
+
+        List<StockResult> results = productService.reserveStock(
+                List.of(new StockLine(b, 2), new StockLine(a, 3)), true);
+
+        assertTrue(results.stream().noneMatch(StockResult::success));
+        assertEquals(5, productService.getProductById(a).getQuantity());
+        assertEquals(1, productService.getProductById(b).getQuantity());
+    }
+
+    @Test
+    void releaseRestoresStockAndBumpsVersion() {
+        Long id = newProduct(2);
+        Long version = productService.getProductById(id).getVersion();
+
+        assertTrue(productService.reserveStock(id, 2).success());
+        assertFalse(productService.reserveStock(id, 1).success());
+        assertTrue(productService.releaseStock(id, 2).success());
+
+        Product product = productService.getProductById(id);
+        assertEquals(2, product.getQuantity());
+        assertEquals(version + 2, product.getVersion());
+    }
+
+    private Long newProduct(int quantity) {
+        return productRepository.save(Product.builder()
+                .name("Stock-" + System.nanoTime())
+                .price(10)
+                .quantity(quantity)
+                .build()).getId();
+    }
+}
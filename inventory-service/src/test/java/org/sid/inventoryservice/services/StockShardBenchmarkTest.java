@@ -0,0 +1,83 @@
+package org.sid.inventoryservice.services;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Débit de réservation sur un seul produit très sollicité selon le nombre de shards de stock.
+ * Lancement : mvn test -Dbenchmark=true [-Dbenchmark.threads=64] [-Dbenchmark.reservations=200]
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stock-shard-bench;LOCK_TIMEOUT=10000",
+        "spring.datasource.hikari.maximum-pool-size=64",
+        "inventory.stock.striping.reconcile-interval-ms=3600000",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StockShardBenchmarkTest {
+
+    private static final int THREADS = Integer.getInteger("benchmark.threads", 64);
+    private static final int RESERVATIONS = Integer.getInteger("benchmark.reservations", 200);
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void throughputByShardCount() throws Exception {
+        for (int shards : new int[]{0, 1, 4, 16, 64}) {
+            Long id = productRepository.save(Product.builder()
+                    .name("Hot-" + shards + "-" + System.nanoTime())
+                    .price(10)
+                    .quantity(THREADS * RESERVATIONS)
+                    .build()).getId();
+            if (shards > 0) {
+                productService.enableStockShards(id, shards);
+            }
+
+            AtomicInteger reserved = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < RESERVATIONS; i++) {
+                        if (productService.reserveStock(id, 1).success()) {
+                            reserved.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(10, TimeUnit.MINUTES);
+            }
+            long elapsedMs = Math.max(1, (System.nanoTime() - begin) / 1_000_000);
+            executor.shutdown();
+
+            assertEquals(THREADS * RESERVATIONS, reserved.get());
+            System.out.printf("[benchmark] shards=%-3d %d threads: %d reservations in %d ms (%d/s)%n",
+                    shards, THREADS, reserved.get(), elapsedMs, reserved.get() * 1000L / elapsedMs);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package org.sid.inventoryservice.services;
+
+import org.junit.jupiter.api.Test;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.entities.StockShard;
+import org.sid.inventoryservice.repository.ProductRepository;
+import org.sid.inventoryservice.repository.StockShardRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:striped-stock;LOCK_TIMEOUT=10000",
+        "spring.datasource.hikari.maximum-pool-size=64",
+        "inventory.stock.striping.reconcile-interval-ms=3600000",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+class StripedStockTest {
+
+    private static final int THREADS = 64;
+
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private StripedStockService stripedStockService;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private StockShardRepository stockShardRepository;
+
+    @Test
+    void enablingSplitsStockEvenly() {
+        Long id = newProduct(10);
+
+        Product product = productService.enableStockShards(id, 4);
+
+        assertEquals(4, product.getStockShards());
+        List<Integer> quantities = stockShardRepository.findAll().stream()
+                .filter(s -> s.getProductId().equals(id))
+                .map(StockShard::getQuantity)
+                .sorted()
+                .toList();
+        assertEquals(List.of(2, 2, 3, 3), quantities);
+    }
+
+    @Test
+    void concurrentReservationsOnShardsNeverOversell() throws Exception {
+        int stock = 500;
+        Long id = newProduct(stock);
+        productService.enableStockShards(id, 8);
+        AtomicInteger reserved = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < 20; i++) {
+                    if (productService.reserveStock(id, 1).success()) {
+                        reserved.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        assertEquals(stock, reserved.get());
+        assertEquals(0, stripedStockService.available(id));
+        stripedStockService.reconcile();
+        assertEquals(0, productService.getProductById(id).getQuantity());
+    }
+
+    @Test
+    void reservationLargerThanAnyShardDrainsSeveralShards() {
+        Long id = newProduct(8);
+        productService.enableStockShards(id, 4);
+
+        assertTrue(productService.reserveStock(id, 7).success());
+        assertFalse(productService.reserveStock(id, 2).success());
+        assertEquals(1, stripedStockService.available(id));
+    }
+
+    @Test
+    void disablingFoldsShardsBackIntoTheProduct() {
+        Long id = newProduct(10);
+        productService.enableStockShards(id, 3);
+        assertTrue(productService.reserveStock(id, 4).success());
+        assertTrue(productService.releaseStock(id, 1).success());
+
+        Product product = productService.disableStockShards(id);
+
+        assertEquals(7, product.getQuantity());
+        assertEquals(0, product.getStockShards());
+        assertFalse(stripedStockService.isStriped(id));
+        assertEquals(0, stripedStockService.available(id));
+        assertTrue(productService.reserveStock(id, 7).success());
+    }
+
+    @Test
+    void reshardingDuringReservationsKeepsStock() throws Exception {
+        int stock = 2000;
+        Long id = newProduct(stock);
+        productService.enableStockShards(id, 8);
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger running = new AtomicInteger(THREADS / 4);
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS / 4);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS / 4; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    for (int i = 0; i < 40; i++) {
+                        if (productService.reserveStock(id, 1).success()) {
+                            reserved.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    running.decrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        // Re-répartitions successives pendant que les réservations s'exécutent
+        int[] counts = {4, 16, 2, 8};
+        for (int i = 0; running.get() > 0; i++) {
+            productService.enableStockShards(id, counts[i % counts.length]);
+        }
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        // Aucune réservation validée n'est effacée par une re-répartition
+        assertEquals(stock - reserved.get(), stripedStockService.available(id));
+        stripedStockService.reconcile();
+        assertEquals(stock - reserved.get(), productService.getProductById(id).getQuantity());
+    }
+
+    private Long newProduct(int quantity) {
+        return productRepository.save(Product.builder()
+                .name("Striped-" + System.nanoTime())
+                .price(10)
+                .quantity(quantity)
+                .build()).getId();
+    }
+}
@@ -0,0 +1,100 @@
+package org.sid.inventoryservice.services;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sections critiques qui accèdent à la base, exécutées par des threads virtuels alors que l'unique
+ * connexion du pool est disputée : aucun thread virtuel ne doit rester épinglé à son thread porteur
+ * (événement JFR {@code jdk.VirtualThreadPinned}) dans le code du service.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:virtual-thread-pinning",
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "inventory.value.mode=counter",
+        "inventory.value.counter.max-staleness=0s",
+        "inventory.quantity.write-behind.enabled=true",
+        "inventory.quantity.write-behind.max-lag-ms=3600000",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+@EnabledForJreRange(min = JRE.JAVA_21)
+class VirtualThreadPinningTest {
+
+    @Autowired
+    private InventoryValueTracker inventoryValueTracker;
+    @Autowired
+    private QuantityWriteBuffer quantityWriteBuffer;
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void lockedDatabaseSectionsDoNotPinVirtualThreads() throws Exception {
+        Long id = productRepository.save(Product.builder().name("pinning-" + System.nanoTime()).price(5).quantity(1).build()).getId();
+        SimpleAsyncTaskExecutor virtualThreads = new SimpleAsyncTaskExecutor("pinning-");
+        virtualThreads.setVirtualThreads(true);
+
+        List<RecordedEvent> pinned = new ArrayList<>();
+        Path dump = Files.createTempFile("pinning", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            recording.start();
+
+            List<CompletableFuture<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < 16; t++) {
+                int task = t;
+                tasks.add(CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < 20; i++) {
+                        switch (task % 3) {
+                            // Occupe l'unique connexion pendant que les autres sections l'attendent
+                            case 0 -> productRepository.count();
+                            case 1 -> inventoryValueTracker.current();
+                            default -> {
+                                quantityWriteBuffer.put(id, task * 100 + i);
+                                quantityWriteBuffer.flush();
+                            }
+                        }
+                    }
+                }, virtualThreads));
+            }
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).get();
+
+            recording.stop();
+            recording.dump(dump);
+            for (RecordedEvent event : RecordingFile.readAllEvents(dump)) {
+                if (inServiceCode(event)) {
+                    pinned.add(event);
+                }
+            }
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+
+        assertTrue(pinned.isEmpty(), "pinned virtual threads: " + pinned);
+    }
+
+    private static boolean inServiceCode(RecordedEvent event) {
+        return event.getStackTrace() != null && event.getStackTrace().getFrames().stream()
+                .map(RecordedFrame::getMethod)
+                .anyMatch(method -> method.getType().getName().startsWith("org.sid."));
+    }
+}
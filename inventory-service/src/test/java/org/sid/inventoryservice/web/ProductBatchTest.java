@@ -0,0 +1,81 @@
+package org.sid.inventoryservice.web;
+
+import org.junit.jupiter.api.Test;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.repository.ProductRepository;
+import org.sid.inventoryservice.services.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * POST /api/products/batch : les lignes invalides sont signalées par leur index, les autres sont créées.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:product-batch",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+@AutoConfigureMockMvc
+class ProductBatchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void invalidRowsAreReportedByIndex() throws Exception {
+        productService.saveProduct(Product.builder().name("batch-existing").price(1).quantity(1).build());
+
+        mockMvc.perform(post("/api/products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                                [
+                                  {"name": "batch-ok", "price": 10, "quantity": 2},
+                                  {"name": "batch-negative-price", "price": -1, "quantity": 2},
+                                  {"name": "batch-negative-quantity", "price": 1, "quantity": -2},
+                                  {"name": "batch-existing", "price": 1, "quantity": 1},
+                                  {"name": "batch-twice", "price": 3, "quantity": 3},
+                                  {"name": "batch-twice", "price": 4, "quantity": 4}
+                                ]
+                                """))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.received").value(6))
+                .andExpect(jsonPath("$.created").value(2))
+                .andExpect(jsonPath("$.errors.length()").value(4))
+                .andExpect(jsonPath("$.errors[0].index").value(1))
+                .andExpect(jsonPath("$.errors[0].message").value("Price cannot be negative"))
+                .andExpect(jsonPath("$.errors[1].index").value(2))
+                .andExpect(jsonPath("$.errors[1].message").value("Quantity cannot be negative"))
+                .andExpect(jsonPath("$.errors[2].index").value(3))
+                .andExpect(jsonPath("$.errors[2].message").value("Product name already exists: batch-existing"))
+                .andExpect(jsonPath("$.errors[3].index").value(5))
+                .andExpect(jsonPath("$.errors[3].message").value("Product name already exists: batch-twice"));
+
+        assertTrue(productRepository.existsByName("batch-ok"));
+        // La première occurrence d'un nom en double dans le lot est créée
+        assertEquals(3, productRepository.findByName("batch-twice").orElseThrow().getPrice());
+        assertFalse(productRepository.existsByName("batch-negative-price"));
+        assertFalse(productRepository.existsByName("batch-negative-quantity"));
+    }
+
+    @Test
+    void emptyBatchCreatesNothing() throws Exception {
+        mockMvc.perform(post("/api/products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.received").value(0))
+                .andExpect(jsonPath("$.created").value(0))
+                .andExpect(jsonPath("$.errors.length()").value(0));
+    }
+}
@@ -0,0 +1,74 @@
+package org.sid.inventoryservice.web;
+
+import org.junit.jupiter.api.Test;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.repository.ProductRepository;
+import org.sid.inventoryservice.services.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:product-conditional-get",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+@AutoConfigureMockMvc
+class ProductConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void unchangedProductAnswersNotModifiedWithoutBody() throws Exception {
+        Long id = newProduct();
+        String etag = mockMvc.perform(get("/api/products/{id}", id))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/products/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void updatedProductReturnsNewBodyAndETag() throws Exception {
+        Long id = newProduct();
+        String etag = mockMvc.perform(get("/api/products/{id}", id))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        productService.updateProductQuantity(id, 42);
+
+        String updated = mockMvc.perform(get("/api/products/{id}", id).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.quantity").value(42))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, updated);
+    }
+
+    @Test
+    void unknownProductIsNotFoundEvenWithIfNoneMatch() throws Exception {
+        mockMvc.perform(get("/api/products/{id}", Long.MAX_VALUE).header(HttpHeaders.IF_NONE_MATCH, "\"0\""))
+                .andExpect(status().isNotFound());
+    }
+
+    private Long newProduct() {
+        return productRepository.save(Product.builder()
+                .name("Etag-" + System.nanoTime())
+                .price(10)
+                .quantity(5)
+                .build()).getId();
+    }
+}
@@ -0,0 +1,76 @@
+package org.sid.inventoryservice.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:product-cursor-pagination",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+@AutoConfigureMockMvc
+class ProductCursorPaginationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void cursorWalksEveryProductOnceInIdOrder() throws Exception {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            products.add(Product.builder().name("cursor-" + i).price(1).quantity(1).build());
+        }
+        productRepository.saveAll(products);
+
+        List<Long> ids = new ArrayList<>();
+        String cursor = "";
+        do {
+            JsonNode page = objectMapper.readTree(mockMvc.perform(get("/api/products").param("cursor", cursor).param("size", "7"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.totalItems").doesNotExist())
+                    .andExpect(jsonPath("$.currentPage").doesNotExist())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("content").forEach(product -> ids.add(product.get("id").asLong()));
+            cursor = page.hasNonNull("nextCursor") ? page.get("nextCursor").asText() : null;
+        } while (cursor != null);
+
+        assertEquals(productRepository.count(), ids.size());
+        assertEquals(ids.stream().sorted().distinct().toList(), ids);
+    }
+
+    @Test
+    void malformedCursorIsBadRequest() throws Exception {
+        mockMvc.perform(get("/api/products").param("cursor", "%%%"))
+                .andExpect(status().isBadRequest());
+        // Base64 valide mais pas un id
+        String notAnId = Base64.getUrlEncoder().withoutPadding().encodeToString("abc".getBytes());
+        mockMvc.perform(get("/api/products").param("cursor", notAnId))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void invalidPageSizeIsNotReportedAsBadCursor() throws Exception {
+        // size=0 : IllegalArgumentException de PageRequest, hors décodage du curseur
+        mockMvc.perform(get("/api/products").param("cursor", "").param("size", "0"))
+                .andExpect(status().isInternalServerError());
+    }
+}
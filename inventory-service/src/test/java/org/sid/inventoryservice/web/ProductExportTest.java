@@ -0,0 +1,62 @@
+package org.sid.inventoryservice.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:product-export",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+@AutoConfigureMockMvc
+class ProductExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ProductRepository productRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportWritesOneJsonProductPerLine() throws Exception {
+        List<Product> products = new ArrayList<>();
+        // Plus d'un intervalle de flush (500) pour couvrir les écritures intermédiaires
+        for (int i = 0; i < 1200; i++) {
+            products.add(Product.builder().name("export-" + i).price(i).quantity(i % 7).build());
+        }
+        productRepository.saveAll(products);
+
+        String body = mockMvc.perform(get("/api/products/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        List<Product> exported = new ArrayList<>();
+        for (String line : body.split("\n")) {
+            exported.add(objectMapper.readValue(line, Product.class));
+        }
+        assertEquals(productRepository.count(), exported.size());
+        Set<Long> ids = exported.stream().map(Product::getId).collect(Collectors.toSet());
+        assertEquals(exported.size(), ids.size());
+        Product first = exported.stream().filter(p -> "export-3".equals(p.getName())).findFirst().orElseThrow();
+        assertEquals(3.0, first.getPrice());
+        assertEquals(3, first.getQuantity());
+    }
+}
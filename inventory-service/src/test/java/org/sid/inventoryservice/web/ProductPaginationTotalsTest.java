@@ -0,0 +1,69 @@
+package org.sid.inventoryservice.web;
+
+import org.junit.jupiter.api.Test;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.services.CountCache;
+import org.sid.inventoryservice.services.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Totaux de pagination ({@code includeTotals}) servis depuis {@link CountCache} et vidés après chaque écriture.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:product-pagination-totals",
+        "inventory.search.index.enabled=false",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+@AutoConfigureMockMvc
+class ProductPaginationTotalsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private CountCache countCache;
+
+    @Test
+    void totalsAreOptionalAndFollowWrites() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            productService.saveProduct(Product.builder().name("totals-" + i).price(7000 + i).quantity(1).build());
+        }
+
+        mockMvc.perform(get("/api/products/price-range").param("minPrice", "7000").param("maxPrice", "7999").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalItems").value(3))
+                .andExpect(jsonPath("$.totalPages").value(2));
+        assertEquals(3, countCache.peek("price:7000.0:7999.0").orElseThrow());
+
+        mockMvc.perform(get("/api/products/price-range").param("minPrice", "7000").param("maxPrice", "7999")
+                        .param("size", "2").param("includeTotals", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.totalItems").doesNotExist())
+                .andExpect(jsonPath("$.totalPages").doesNotExist());
+
+        // L'écriture vide le cache : le total suivant est recompté
+        productService.saveProduct(Product.builder().name("totals-3").price(7003).quantity(1).build());
+        assertTrue(countCache.peek("price:7000.0:7999.0").isEmpty());
+        mockMvc.perform(get("/api/products/price-range").param("minPrice", "7000").param("maxPrice", "7999").param("size", "2"))
+                .andExpect(jsonPath("$.totalItems").value(4));
+    }
+
+    @Test
+    void countQueriesAreNotExportedBySpringDataRest() throws Exception {
+        mockMvc.perform(get("/products/search"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(containsString("count"))));
+    }
+}
@@ -0,0 +1,88 @@
+package org.sid.inventoryservice.web;
+
+import org.junit.jupiter.api.Test;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.services.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Statuts de /reserve et /release : 400 pour une quantité invalide, 404 pour un produit inconnu,
+ * 409 seulement pour un stock insuffisant.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:product-stock-endpoint",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+@AutoConfigureMockMvc
+class ProductStockEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ProductService productService;
+
+    @Test
+    void reservationStatuses() throws Exception {
+        Long id = newProduct("stock-endpoint", 5).getId();
+
+        perform("/api/products/{id}/reserve", id, 2)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.remaining").value(3));
+        perform("/api/products/{id}/reserve", id, 0)
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Quantity must be positive"));
+        perform("/api/products/{id}/reserve", Long.MAX_VALUE, 1)
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Product not found with id: " + Long.MAX_VALUE));
+        perform("/api/products/{id}/reserve", id, 10)
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Insufficient stock: 3 available"))
+                // Le code d'échec interne n'est pas sérialisé
+                .andExpect(jsonPath("$.failure").doesNotExist());
+    }
+
+    @Test
+    void releaseStatuses() throws Exception {
+        Long id = newProduct("stock-endpoint-release", 1).getId();
+
+        perform("/api/products/{id}/release", id, 4)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.remaining").value(5));
+        perform("/api/products/{id}/release", id, -1)
+                .andExpect(status().isBadRequest());
+        perform("/api/products/{id}/release", Long.MAX_VALUE, 1)
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void stripedReservationOmitsRemaining() throws Exception {
+        Long id = newProduct("stock-endpoint-striped", 100).getId();
+        productService.enableStockShards(id, 4);
+
+        perform("/api/products/{id}/reserve", id, 1)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success").value(true))
+                .andExpect(jsonPath("$.remaining").doesNotExist());
+    }
+
+    private ResultActions perform(String path, Long id, int quantity) throws Exception {
+        return mockMvc.perform(post(path, id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"quantity\": " + quantity + "}"));
+    }
+
+    private Product newProduct(String name, int quantity) {
+        Product product = Product.builder().name(name).price(1).quantity(quantity).build();
+        productService.saveProduct(product);
+        return product;
+    }
+}
@@ -0,0 +1,132 @@
+package org.sid.inventoryservice.web;
+
+import org.junit.jupiter.api.Test;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.services.ProductService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Lectures R2DBC de /api/products/reactive : elles voient les écritures JPA et répondent comme
+ * les lectures bloquantes, en traitement asynchrone.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactive-products",
+        "inventory.search.index.enabled=false",
+        "inventory.reactive.enabled=true",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+@AutoConfigureMockMvc
+class ReactiveProductControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ProductService productService;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void productWrittenWithJpaIsReadReactively() throws Exception {
+        Product product = newProduct("reactive-by-id", 12.5, 3);
+
+        perform(get("/api/products/reactive/{id}", product.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("reactive-by-id"))
+                .andExpect(jsonPath("$.price").value(12.5))
+                .andExpect(jsonPath("$.quantity").value(3));
+
+        productService.updateProductQuantity(product.getId(), 7);
+        perform(get("/api/products/reactive/{id}", product.getId()))
+                .andExpect(jsonPath("$.quantity").value(7));
+    }
+
+    @Test
+    void unknownProductIsNotFound() throws Exception {
+        perform(get("/api/products/reactive/{id}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void bulkReturnsExistingProducts() throws Exception {
+        Long first = newProduct("reactive-bulk-1", 1, 1).getId();
+        Long second = newProduct("reactive-bulk-2", 2, 2).getId();
+
+        perform(post("/api/products/reactive/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + first + "," + second + "," + Long.MAX_VALUE + "]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[*].name", containsInAnyOrder("reactive-bulk-1", "reactive-bulk-2")));
+    }
+
+    @Test
+    void searchMatchesLiterallyAndPages() throws Exception {
+        newProduct("Reactive_Search A", 1, 1);
+        newProduct("reactive_search b", 1, 1);
+        newProduct("reactiveXsearch c", 1, 1);
+
+        // "_" n'est pas un joker : le troisième produit ne correspond pas
+        perform(get("/api/products/reactive/search").param("name", "REACTIVE_SEARCH").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.totalItems").value(2))
+                .andExpect(jsonPath("$.totalPages").value(2));
+    }
+
+    @Test
+    void priceRangeAndLowStockMatchBlockingReads() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            newProduct("reactive-range-" + i, 9000 + i, i);
+        }
+
+        String blocking = mockMvc.perform(get("/api/products/price-range")
+                        .param("minPrice", "9001").param("maxPrice", "9003").param("size", "2"))
+                .andReturn().getResponse().getContentAsString();
+        String reactive = perform(get("/api/products/reactive/price-range")
+                .param("minPrice", "9001").param("maxPrice", "9003").param("size", "2"))
+                .andExpect(jsonPath("$.totalItems").value(3))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(blocking, reactive);
+
+        perform(get("/api/products/reactive/low-stock")
+                .param("threshold", "1").param("includeTotals", "false").param("size", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalItems").doesNotExist())
+                .andExpect(jsonPath("$.content[?(@.name == 'reactive-range-0')]").exists())
+                .andExpect(jsonPath("$.content[?(@.name == 'reactive-range-1')]").doesNotExist());
+    }
+
+    @Test
+    void jpaTransactionManagerIsKept() {
+        assertTrue(transactionManager.getClass().getSimpleName().startsWith("Jpa"), transactionManager.getClass().getName());
+    }
+
+    private ResultActions perform(RequestBuilder request) throws Exception {
+        MvcResult started = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
+
+    private Product newProduct(String name, double price, int quantity) {
+        Product product = Product.builder().name(name).price(price).quantity(quantity).build();
+        productService.saveProduct(product);
+        return product;
+    }
+}
@@ -0,0 +1,132 @@
+package org.sid.inventoryservice.web;
+
+import io.netty.channel.ChannelOption;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Charge de {@code CONNECTIONS} connexions simultanées (une requête en vol par connexion) sur la
+ * lecture par tranche de prix, bloquante (JPA, thread Tomcat tenu pendant la requête) et réactive
+ * (R2DBC, thread Tomcat rendu). Relevés : débit, p50/p99, erreurs et pic de threads de la JVM.
+ * H2 en mémoire exécute ses requêtes sur le thread appelant, sans attente d'E/S à recouvrir, et le
+ * client partage la machine avec le serveur : seul un Postgres distant montre le gain de R2DBC.
+ * Lancement : mvn test -Dbenchmark=true -Dtest=ReactiveReadBenchmarkTest [-Dbenchmark.connections=5000]
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:reactive-read-bench",
+        "server.tomcat.accept-count=10000",
+        "server.compression.enabled=false",
+        "inventory.reactive.enabled=true",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReactiveReadBenchmarkTest {
+
+    private static final int CONNECTIONS = Integer.getInteger("benchmark.connections", 5000);
+    private static final int REQUESTS_PER_CONNECTION = 4;
+    private static final int PRODUCTS = 2000;
+    private static final String QUERY = "/price-range?minPrice=100&maxPrice=200&size=20&includeTotals=false";
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private ProductRepository productRepository;
+
+    private WebClient webClient;
+    private ConnectionProvider connections;
+
+    @BeforeAll
+    void seed() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(Product.builder().name("bench-reactive-" + i).price(i % 1000).quantity(i % 50).build());
+        }
+        productRepository.saveAll(products);
+
+        connections = ConnectionProvider.builder("bench")
+                .maxConnections(CONNECTIONS)
+                .pendingAcquireMaxCount(-1)
+                .pendingAcquireTimeout(Duration.ofMinutes(2))
+                .build();
+        webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + port + "/api/products")
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)
+                        .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 60_000)
+                        .responseTimeout(Duration.ofMinutes(2))))
+                .build();
+    }
+
+    @Test
+    void bothReadPathsServeManyConnectionsWithoutErrors() {
+        // Chauffe (JIT, pools, connexions client) hors mesure
+        run("blocking warmup", "");
+        run("reactive warmup", "/reactive");
+
+        int blocking = run("blocking JPA", "");
+        int reactive = run("reactive R2DBC", "/reactive");
+        connections.dispose();
+
+        // En rafale, les requêtes attendent une connexion (Hikari, pool R2DBC) au lieu d'échouer
+        assertEquals(0, blocking, "blocking errors");
+        assertEquals(0, reactive, "reactive errors");
+    }
+
+    private int run(String label, String prefix) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        threads.resetPeakThreadCount();
+        int requests = CONNECTIONS * REQUESTS_PER_CONNECTION;
+        AtomicInteger errors = new AtomicInteger();
+
+        long start = System.nanoTime();
+        List<Long> latencies = Flux.range(0, requests)
+                .flatMap(i -> {
+                    long sent = System.nanoTime();
+                    return webClient.get().uri(prefix + QUERY)
+                            .retrieve()
+                            .toBodilessEntity()
+                            .map(response -> (System.nanoTime() - sent) / 1_000_000)
+                            .onErrorResume(e -> {
+                                errors.incrementAndGet();
+                                return Mono.empty();
+                            });
+                }, CONNECTIONS)
+                .collectSortedList()
+                .block();
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+        if (!label.endsWith("warmup")) {
+            System.out.printf("[benchmark] %s, %d connections: %d requests in %d ms (%.0f req/s), p50 %d ms, p99 %d ms, %d errors, peak %d JVM threads%n",
+                    label, CONNECTIONS, requests, elapsedMs, requests * 1000.0 / elapsedMs,
+                    percentile(latencies, 50), percentile(latencies, 99), errors.get(), threads.getPeakThreadCount());
+        }
+        return errors.get();
+    }
+
+    private static long percentile(List<Long> sorted, int percentile) {
+        return sorted.isEmpty() ? 0 : sorted.get(Math.min(sorted.size() - 1, sorted.size() * percentile / 100));
+    }
+}
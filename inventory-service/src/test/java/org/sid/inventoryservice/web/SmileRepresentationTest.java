@@ -0,0 +1,81 @@
+package org.sid.inventoryservice.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:product-smile",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+@AutoConfigureMockMvc
+class SmileRepresentationTest {
+
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+    private static final ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ProductRepository productRepository;
+
+    @BeforeEach
+    void products() {
+        if (productRepository.count() < 20) {
+            productRepository.saveAll(IntStream.range(0, 20)
+                    .mapToObj(i -> Product.builder().name("smile-" + i).price(10 + i).quantity(i).build())
+                    .toList());
+        }
+    }
+
+    @Test
+    void controllerPageIsSmallerInSmileThanInJson() throws Exception {
+        byte[] smile = mockMvc.perform(get("/api/products").param("size", "20").accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+        byte[] json = mockMvc.perform(get("/api/products").param("size", "20").accept(MediaType.APPLICATION_JSON))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode page = smileMapper.readTree(smile);
+        assertEquals(20, page.get("content").size());
+        assertTrue(page.get("content").get(0).get("name").isTextual());
+        assertTrue(smile.length < json.length, "smile " + smile.length + " B, json " + json.length + " B");
+    }
+
+    @Test
+    void jsonRemainsTheDefaultWhenBothAreAccepted() throws Exception {
+        mockMvc.perform(get("/api/products").param("size", "5")
+                        .header(HttpHeaders.ACCEPT, "application/json, application/x-jackson-smile;q=0.5"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.content.length()").value(5));
+    }
+
+    @Test
+    void dataRestCollectionFallsBackToHalJson() throws Exception {
+        mockMvc.perform(get("/products").param("size", "5")
+                        .header(HttpHeaders.ACCEPT, "application/x-jackson-smile, application/hal+json;q=0.9, application/json;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaTypes.HAL_JSON))
+                .andExpect(jsonPath("$._embedded.products.length()").value(5));
+    }
+}
@@ -0,0 +1,110 @@
+package org.sid.inventoryservice.web;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.sid.inventoryservice.entities.Product;
+import org.sid.inventoryservice.records.PagedResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.hateoas.MediaTypes;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Taille et temps de décodage d'une page de 10 000 produits en JSON et en Smile, avec la page HAL
+ * de Spring Data REST pour référence.
+ * Lancement : mvn test -Dbenchmark=true -Dtest=WireFormatBenchmarkTest [-Dbenchmark.page-size=10000]
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:wire-format-bench",
+        "spring.data.rest.max-page-size=100000",
+        "eureka.client.enabled=false",
+        "logging.level.org.sid=WARN"
+})
+@AutoConfigureMockMvc
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class WireFormatBenchmarkTest {
+
+    private static final int PAGE_SIZE = Integer.getInteger("benchmark.page-size", 10_000);
+    private static final int ROUNDS = 30;
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+    private static final TypeReference<PagedResponse<Product>> PAGE = new TypeReference<>() {};
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeAll
+    void populate() {
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            batch.add(new Object[]{"wire-bench-product-" + i, 10 + i % 1000 + 0.99, i % 50});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO product (id, name, price, quantity, version) VALUES (NEXT VALUE FOR product_seq, ?, ?, ?, 0)", batch);
+    }
+
+    @Test
+    void compareJsonAndSmile() throws Exception {
+        byte[] json = fetch("/api/products", MediaType.APPLICATION_JSON);
+        byte[] smile = fetch("/api/products", SMILE);
+        byte[] hal = fetch("/products", MediaTypes.HAL_JSON);
+        ObjectMapper smileMapper = objectMapper.copyWith(new SmileFactory());
+
+        double jsonMs = decode(objectMapper, json);
+        double smileMs = decode(smileMapper, smile);
+        double halMs = decodeTree(objectMapper, hal);
+        System.out.printf("[benchmark] %d products, JSON: %d KB, decode %.2f ms%n", PAGE_SIZE, json.length / 1024, jsonMs);
+        System.out.printf("[benchmark] %d products, Smile: %d KB, decode %.2f ms%n", PAGE_SIZE, smile.length / 1024, smileMs);
+        System.out.printf("[benchmark] %d products, HAL JSON (Data REST): %d KB, tree decode %.2f ms%n", PAGE_SIZE, hal.length / 1024, halMs);
+
+        assertEquals(PAGE_SIZE, smileMapper.readValue(smile, PAGE).content().size());
+        assertTrue(smile.length < json.length);
+    }
+
+    private byte[] fetch(String path, MediaType accept) throws Exception {
+        return mockMvc.perform(get(path).param("size", String.valueOf(PAGE_SIZE)).accept(accept))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    /** Temps moyen de décodage après chauffe. */
+    private static double decode(ObjectMapper mapper, byte[] payload) throws Exception {
+        for (int i = 0; i < ROUNDS; i++) {
+            mapper.readValue(payload, PAGE);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            mapper.readValue(payload, PAGE);
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ROUNDS;
+    }
+
+    private static double decodeTree(ObjectMapper mapper, byte[] payload) throws Exception {
+        for (int i = 0; i < ROUNDS; i++) {
+            mapper.readTree(payload);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            mapper.readTree(payload);
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ROUNDS;
+    }
+}